@@ -0,0 +1,41 @@
+package com.example.cryptorecommendationsservice.actuator;
+
+import com.example.cryptorecommendationsservice.filter.AdaptiveConcurrencyLimiter;
+import com.example.cryptorecommendationsservice.filter.RateLimitingFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the current concurrency limits, queue depths and rate-limit route costs at
+ * {@code /actuator/loadshedding}.
+ */
+@Component
+@Endpoint(id = "loadshedding")
+public class LoadSheddingEndpoint {
+
+    private final List<AdaptiveConcurrencyLimiter> limiters;
+    private final RateLimitingFilter rateLimitingFilter;
+
+    @Autowired
+    public LoadSheddingEndpoint(List<AdaptiveConcurrencyLimiter> limiters, RateLimitingFilter rateLimitingFilter) {
+        this.limiters = limiters;
+        this.rateLimitingFilter = rateLimitingFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> loadShedding() {
+        Map<String, Object> lanes = new LinkedHashMap<>();
+        limiters.forEach(limiter -> lanes.put(limiter.getName(), limiter.getMetrics()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("concurrencyLimits", lanes);
+        result.put("rateLimitRouteCosts", rateLimitingFilter.getRouteCosts());
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.cryptorecommendationsservice.config;
+
+import com.example.cryptorecommendationsservice.service.StripedLocks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportConfig {
+
+    /**
+     * Configures the pool that writes import partitions, one task per symbol. Each task holds a database
+     * connection while it writes, so the pool should not be larger than the connection pool.
+     *
+     * @param parallelism the number of threads, or 0 to use the number of cores capped at 8.
+     * @return a configured ThreadPoolTaskExecutor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importTaskExecutor(@Value("${crypto.import.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Per-symbol locks that serialize writes to the same symbol across concurrent imports.
+     *
+     * @param stripes the number of lock stripes.
+     * @return the StripedLocks instance.
+     */
+    @Bean
+    public StripedLocks symbolLocks(@Value("${crypto.import.lock-stripes:64}") int stripes) {
+        return new StripedLocks(stripes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cryptorecommendationsservice.config;
+
+import com.example.cryptorecommendationsservice.filter.AdaptiveConcurrencyLimiter;
+import com.example.cryptorecommendationsservice.filter.LoadSheddingFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+@Configuration
+public class LoadSheddingConfig {
+
+    /**
+     * Adaptive limiter for read requests. Defaults can be overridden with the crypto.load-shedding.read.*
+     * properties.
+     *
+     * @param environment the environment to read overrides from.
+     * @return the limiter for read requests.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter readConcurrencyLimiter(Environment environment) {
+        return limiter(environment, "read", 20, 2, 200, Duration.ofMillis(250), 100, Duration.ofMillis(500));
+    }
+
+    /**
+     * Adaptive limiter for imports. Defaults can be overridden with the crypto.load-shedding.import.* properties.
+     *
+     * @param environment the environment to read overrides from.
+     * @return the limiter for imports.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter importConcurrencyLimiter(Environment environment) {
+        return limiter(environment, "import", 2, 1, 4, Duration.ofSeconds(30), 4, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Adaptive limiter for bulk exports, which take far longer than reads and would otherwise drive the read limit
+     * down. Defaults can be overridden with the crypto.load-shedding.export.* properties.
+     *
+     * @param environment the environment to read overrides from.
+     * @return the limiter for exports.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter exportConcurrencyLimiter(Environment environment) {
+        return limiter(environment, "export", 2, 1, 4, Duration.ofSeconds(30), 4, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Registers the LoadSheddingFilter after rate limiting, so requests over their rate never take a permit.
+     *
+     * @param loadSheddingFilter the LoadSheddingFilter bean.
+     * @param environment        the environment, used to read crypto.load-shedding.enabled.
+     * @return a FilterRegistrationBean configured with the LoadSheddingFilter.
+     */
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilterRegistration(LoadSheddingFilter loadSheddingFilter,
+                                                                                    Environment environment) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(loadSheddingFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(2);
+        registration.setEnabled(environment.getProperty("crypto.load-shedding.enabled", Boolean.class, true));
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(Environment environment, String lane, int initialLimit,
+                                                      int minLimit, int maxLimit, Duration latencyTarget,
+                                                      int maxQueueSize, Duration maxQueueWait) {
+        String prefix = "crypto.load-shedding." + lane + ".";
+        return new AdaptiveConcurrencyLimiter(lane,
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "latency-target", Duration.class, latencyTarget),
+                environment.getProperty(prefix + "max-queue-size", Integer.class, maxQueueSize),
+                environment.getProperty(prefix + "max-queue-wait", Duration.class, maxQueueWait));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.cryptorecommendationsservice.config;
+
+import com.example.cryptorecommendationsservice.dto.CryptoNormalizedRangeDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoQuantilesDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoScoreDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoStatsSimpleDTO;
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.example.cryptorecommendationsservice.model.Crypto;
+import com.example.cryptorecommendationsservice.model.CryptoPrice;
+import com.example.cryptorecommendationsservice.model.CryptoPriceSketch;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for the GraalVM native image ({@code ./mvnw -Pnative native:compile}).
+ * <p>
+ * Spring AOT already covers the beans, the repositories and the return types of controller methods, and springdoc
+ * ships hints for its OpenAPI model. This registers what is only reached dynamically: the bundled CSV files loaded
+ * through a classpath pattern, the JPA entities Hibernate instantiates and populates by reflection, the DTOs that
+ * {@code RenderedResponseCache} and {@code CryptoUpdatePublisher} serialize with Jackson outside of a controller
+ * return type, and the Swagger UI webjar. Bucket4j's local buckets use neither reflection nor resources and need
+ * no hints.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern("csv/*.csv")
+                .registerPattern("META-INF/resources/webjars/swagger-ui/**")
+                .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+
+        for (Class<?> entity : new Class<?>[]{Crypto.class, CryptoPrice.class, CryptoPriceSketch.class}) {
+            hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                CryptoNormalizedRangeDTO.class, CryptoStatsSimpleDTO.class, CryptoScoreDTO.class,
+                CryptoQuantilesDTO.class, CsvImportReport.class);
+    }
+}
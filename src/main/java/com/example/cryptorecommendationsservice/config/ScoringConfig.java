@@ -0,0 +1,29 @@
+package com.example.cryptorecommendationsservice.config;
+
+import com.example.cryptorecommendationsservice.scoring.PriceVectorOps;
+import com.example.cryptorecommendationsservice.scoring.ScalarPriceVectorOps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ScoringConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringConfig.class);
+
+    /**
+     * Selects the vector operations used by the scoring kernels. The Vector API implementation is only used when
+     * the JVM was started with {@code --add-modules jdk.incubator.vector}; otherwise the scalar loops are used.
+     *
+     * @param vectorized whether the Vector API may be used at all.
+     * @return the PriceVectorOps implementation.
+     */
+    @Bean
+    public PriceVectorOps priceVectorOps(@Value("${crypto.scoring.vectorized:true}") boolean vectorized) {
+        PriceVectorOps ops = vectorized ? PriceVectorOps.best() : new ScalarPriceVectorOps();
+        logger.info("Using {} for scoring kernels", ops.getClass().getSimpleName());
+        return ops;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cryptorecommendationsservice.config;
+
+import com.example.cryptorecommendationsservice.filter.WarmUpFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WarmUpConfig {
+
+    /**
+     * Registers the WarmUpFilter for the read and export endpoints. It runs before rate limiting so requests rejected during
+     * warm-up do not consume tokens.
+     *
+     * @param warmUpFilter the WarmUpFilter bean.
+     * @return a FilterRegistrationBean configured with the WarmUpFilter.
+     */
+    @Bean
+    public FilterRegistrationBean<WarmUpFilter> warmUpFilterRegistration(WarmUpFilter warmUpFilter) {
+        FilterRegistrationBean<WarmUpFilter> registration = new FilterRegistrationBean<>(warmUpFilter);
+        // Imports are accepted during warm-up, reads and exports are not
+        registration.addUrlPatterns("/api/crypto/*", "/api/export/*");
+        registration.setOrder(0);
+        return registration;
+    }
+}
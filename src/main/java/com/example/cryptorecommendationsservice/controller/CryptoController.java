@@ -1,16 +1,28 @@
 package com.example.cryptorecommendationsservice.controller;
 
 import com.example.cryptorecommendationsservice.dto.CryptoNormalizedRangeDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoQuantilesDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoScoreDTO;
 import com.example.cryptorecommendationsservice.dto.CryptoStatsSimpleDTO;
 import com.example.cryptorecommendationsservice.service.CryptoService;
+import com.example.cryptorecommendationsservice.service.CryptoUpdatePublisher;
+import com.example.cryptorecommendationsservice.service.RenderedResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -19,25 +31,32 @@ import java.util.List;
 public class CryptoController {
 
     private final CryptoService cryptoService;
+    private final RenderedResponseCache renderedResponseCache;
+    private final CryptoUpdatePublisher cryptoUpdatePublisher;
 
     @Autowired
-    public CryptoController(CryptoService cryptoService) {
+    public CryptoController(CryptoService cryptoService, RenderedResponseCache renderedResponseCache,
+                            CryptoUpdatePublisher cryptoUpdatePublisher) {
         this.cryptoService = cryptoService;
+        this.renderedResponseCache = renderedResponseCache;
+        this.cryptoUpdatePublisher = cryptoUpdatePublisher;
     }
 
     /**
-     * Endpoint to retrieve all supported crypto symbols.
+     * Endpoint to retrieve all supported crypto symbols. The JSON list is pre-rendered once per data version.
      *
-     * @return List of supported crypto symbols.
+     * @param request  the current request, used to negotiate gzip encoding.
+     * @param response the response the pre-rendered list is written to.
      */
     @Operation(summary = "Get all supported crypto symbols", description = "Retrieves a list of all supported cryptocurrency symbols.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of supported cryptos retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "List of supported cryptos retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = String.class)))),
             @ApiResponse(responseCode = "404", description = "No supported cryptos found")
     })
     @GetMapping("/supported")
-    public List<String> getSupportedCryptos() {
-        return cryptoService.getAllCryptoSymbols();
+    public void getSupportedCryptos(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        renderedResponseCache.get("supported", cryptoService::getAllCryptoSymbols).writeTo(request, response);
     }
 
     /**
@@ -57,18 +76,21 @@ public class CryptoController {
     }
 
     /**
-     * Endpoint to retrieve a sorted list of cryptos by normalized range (descending).
+     * Endpoint to retrieve a sorted list of cryptos by normalized range (descending). The JSON list of
+     * CryptoNormalizedRange is pre-rendered once per data version.
      *
-     * @return List of CryptoNormalizedRange sorted by normalized range.
+     * @param request  the current request, used to negotiate gzip encoding.
+     * @param response the response the pre-rendered list is written to.
      */
     @Operation(summary = "Get cryptos sorted by normalized range", description = "Returns a descending sorted list of cryptos based on their normalized range (max - min / min).")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Sorted list of cryptos by normalized range retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Sorted list of cryptos by normalized range retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = CryptoNormalizedRangeDTO.class)))),
             @ApiResponse(responseCode = "404", description = "No crypto data found for the normalized range")
     })
     @GetMapping("/normalized-range")
-    public List<CryptoNormalizedRangeDTO> getCryptosByNormalizedRange() {
-        return cryptoService.getCryptosSortedByNormalizedRange();
+    public void getCryptosByNormalizedRange(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        renderedResponseCache.get("normalized-range", cryptoService::getCryptosSortedByNormalizedRange).writeTo(request, response);
     }
 
     /**
@@ -88,4 +110,71 @@ public class CryptoController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         return cryptoService.getHighestNormalizedRangeForDate(date);
     }
+
+    /**
+     * Endpoint to estimate price quantiles (for example median, p5 and p95) of a crypto over a range of days.
+     *
+     * @param symbol The crypto symbol.
+     * @param q      The quantiles to estimate, each between 0 and 1.
+     * @param from   The first day, inclusive; unbounded if omitted.
+     * @param to     The last day, inclusive; unbounded if omitted.
+     * @return CryptoQuantilesDTO with the estimated price per quantile.
+     */
+    @Operation(summary = "Get price quantiles for a specific crypto", description = "Estimates price quantiles over a range of days from mergeable daily sketches. Estimates are within the reported relative accuracy (1% by default) of a price at the requested rank.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantiles estimated successfully"),
+            @ApiResponse(responseCode = "400", description = "Quantile outside [0, 1] or from after to"),
+            @ApiResponse(responseCode = "404", description = "No price data found for the specified crypto and range")
+    })
+    @GetMapping("/{symbol}/quantiles")
+    public CryptoQuantilesDTO getCryptoQuantiles(
+            @Parameter(description = "Symbol of the crypto to estimate quantiles for") @PathVariable String symbol,
+            @Parameter(description = "Quantiles between 0 and 1", example = "0.05,0.5,0.95")
+            @RequestParam(defaultValue = "0.05,0.5,0.95") List<Double> q,
+            @Parameter(description = "First day, inclusive", example = "2022-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive", example = "2022-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return cryptoService.getCryptoQuantiles(symbol, q, from, to);
+    }
+
+    /**
+     * Endpoint to rank cryptos by a weighted combination of scoring metrics.
+     *
+     * @param metrics metric specifications of the form {@code name} or {@code name:weight}.
+     * @param limit   the maximum number of cryptos to return.
+     * @return List of CryptoScoreDTO, highest composite score first.
+     */
+    @Operation(summary = "Get crypto recommendations", description = "Ranks cryptos by a weighted composite of metrics (normalizedRange, momentum, volatility, tickVolume). Each metric is scaled to [0, 1] across all cryptos before weighting.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked list of cryptos retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown metric, invalid weight or invalid limit"),
+            @ApiResponse(responseCode = "404", description = "No crypto data found")
+    })
+    @GetMapping("/recommendations")
+    public List<CryptoScoreDTO> getRecommendations(
+            @Parameter(description = "Metrics as name or name:weight", example = "normalizedRange:1,volatility:-0.5")
+            @RequestParam(defaultValue = "normalizedRange") List<String> metrics,
+            @Parameter(description = "Maximum number of cryptos to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return cryptoService.getRecommendations(metrics, limit);
+    }
+
+    /**
+     * Endpoint to subscribe to updates as Server-Sent Events. The current normalized-range ranking is sent right away;
+     * after every import a {@code normalized-range} event carries the new ranking and a {@code stats} event the
+     * stats of the imported symbols that changed.
+     *
+     * @return the event stream.
+     */
+    @Operation(summary = "Subscribe to ranking and stats updates", description = "Streams Server-Sent Events: 'normalized-range' with the full ranking on subscribe and after each import, and 'stats' with the stats of the symbols that changed in an import. Clients that fall too far behind are disconnected and should reconnect.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return cryptoUpdatePublisher.subscribe();
+    }
 }
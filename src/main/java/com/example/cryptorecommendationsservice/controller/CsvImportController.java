@@ -1,5 +1,6 @@
 package com.example.cryptorecommendationsservice.controller;
 
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
 import com.example.cryptorecommendationsservice.service.CsvImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -7,12 +8,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import jakarta.annotation.PostConstruct;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -27,44 +23,27 @@ import java.io.InputStream;
 public class CsvImportController {
 
     private final CsvImportService csvImportService;
-    private static final Logger logger = LoggerFactory.getLogger(CsvImportController.class);
 
     @Autowired
     public CsvImportController(CsvImportService csvImportService) {
         this.csvImportService = csvImportService;
     }
 
-    /**
-     * Loads all CSV files from the resources/csv directory after application startup.
-     */
-    @PostConstruct
-    public void loadCsvFilesOnStartup() throws Exception {
-        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-        Resource[] resources = resolver.getResources("classpath:csv/*.csv");
-
-        for (Resource resource : resources) {
-            try (InputStream inputStream = resource.getInputStream()) {
-                csvImportService.importCryptoData(inputStream);
-                logger.info("Loaded CSV file: {}", resource.getFilename());
-            }
-        }
-    }
-
     /**
      * Endpoint to import cryptocurrency data from a CSV file.
      *
      * @param file The CSV file containing crypto data.
-     * @return A response message indicating success or failure of the import process.
+     * @return The import report: row counts, elapsed time per phase and the first rejected rows with line numbers.
      * @throws Exception if an unexpected error occurs.
      */
     @Operation(summary = "Import crypto data from CSV file", description = "Processes and imports cryptocurrency data from an uploaded CSV file.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "CSV data imported successfully"),
+            @ApiResponse(responseCode = "200", description = "CSV data imported; the report lists rows read, inserted, updated, skipped and rejected"),
             @ApiResponse(responseCode = "400", description = "The uploaded file contains invalid data.", content = @Content(schema = @Schema(implementation = String.class))),
             @ApiResponse(responseCode = "500", description = "An internal server error occurred while processing the file.", content = @Content(schema = @Schema(implementation = String.class)))
     })
     @PostMapping("/crypto")
-    public ResponseEntity<String> importCryptoData(
+    public ResponseEntity<CsvImportReport> importCryptoData(
             @RequestBody(
                     description = "CSV file containing crypto data",
                     required = true,
@@ -72,8 +51,7 @@ public class CsvImportController {
             )
             @RequestParam("file") MultipartFile file) throws Exception {
         try (InputStream inputStream = file.getInputStream()) {
-            csvImportService.importCryptoData(inputStream);
-            return ResponseEntity.ok("CSV data imported successfully.");
+            return ResponseEntity.ok(csvImportService.importCryptoData(inputStream));
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.example.cryptorecommendationsservice.controller;
+
+import com.example.cryptorecommendationsservice.export.ColumnarPriceWriter;
+import com.example.cryptorecommendationsservice.export.FixedPointPriceSeries;
+import com.example.cryptorecommendationsservice.scoring.PriceSeriesLoader;
+import com.example.cryptorecommendationsservice.scoring.PriceSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final PriceSeriesLoader priceSeriesLoader;
+    private final PriceSnapshotService priceSnapshotService;
+
+    @Autowired
+    public ExportController(PriceSeriesLoader priceSeriesLoader, PriceSnapshotService priceSnapshotService) {
+        this.priceSeriesLoader = priceSeriesLoader;
+        this.priceSnapshotService = priceSnapshotService;
+    }
+
+    /**
+     * Endpoint to export the full price history of all cryptos in the columnar binary format described in
+     * {@link ColumnarPriceWriter}. The prices are streamed from the database one symbol at a time, so only one
+     * symbol's series is held in memory. A price that cannot be encoded aborts the response before the end marker,
+     * which readers report as a truncated export.
+     *
+     * @param response The response the export is streamed to.
+     * @throws IOException if writing the response fails.
+     */
+    @Operation(summary = "Export all prices", description = "Streams the full price history of all cryptos in a compact columnar binary format: a header per symbol, delta-varint timestamps and fixed-point prices in units of 10^-8. See ColumnarPriceReader for a reader.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Price history exported successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE, schema = @Schema(type = "string", format = "binary")))
+    })
+    @GetMapping("/prices")
+    public void exportPrices(HttpServletResponse response) throws IOException {
+        // Read before loading, so the export holds at least the data of this version
+        long dataVersion = priceSnapshotService.getDataVersion();
+
+        // No Content-Length: blocks are written as the symbols are read from the cursor, so the response is chunked
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"crypto-prices.crpx\"");
+        response.setHeader("X-Data-Version", String.valueOf(dataVersion));
+        ColumnarPriceWriter writer = new ColumnarPriceWriter(response.getOutputStream());
+        priceSeriesLoader.forEachSeries(FixedPointPriceSeries.Builder::new, writer::write);
+        writer.finish();
+    }
+}
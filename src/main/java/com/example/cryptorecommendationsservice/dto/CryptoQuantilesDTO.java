@@ -0,0 +1,19 @@
+package com.example.cryptorecommendationsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class CryptoQuantilesDTO {
+    private String symbol;
+    private LocalDate from;
+    private LocalDate to;
+    private long count;
+    private double relativeAccuracy;
+    private Map<String, BigDecimal> quantiles;
+}
@@ -0,0 +1,15 @@
+package com.example.cryptorecommendationsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class CryptoScoreDTO {
+    private String symbol;
+    private BigDecimal score;
+    private Map<String, BigDecimal> metrics;
+}
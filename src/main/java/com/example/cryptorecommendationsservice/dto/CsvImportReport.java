@@ -0,0 +1,32 @@
+package com.example.cryptorecommendationsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a CSV import: row counts, elapsed time per phase and the first rejected rows.
+ */
+@Data
+public class CsvImportReport {
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long skipped;
+    private long rejected;
+    private long parseMillis;
+    private long writeMillis;
+    private long totalMillis;
+    private List<RejectedRow> rejectedRows = new ArrayList<>();
+    private boolean rejectedRowsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private long lineNumber;
+        private String reason;
+        private String line;
+    }
+}
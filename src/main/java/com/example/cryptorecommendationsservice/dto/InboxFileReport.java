@@ -0,0 +1,27 @@
+package com.example.cryptorecommendationsservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an inbox file: whether it ended in {@code done/} or {@code failed/}, and the report of every import
+ * of one of its byte ranges. Line numbers of rejected rows count from the start of their range.
+ */
+@Data
+public class InboxFileReport {
+    private String file;
+    private String status;
+    private String error;
+    private List<RangeImport> imports = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RangeImport {
+        private long fromByte;
+        private long toByte;
+        private CsvImportReport report;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.cryptorecommendationsservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Published by the import pipeline once new price data has been written. Listeners that cache anything derived
+ * from the price tables should use {@code @TransactionalEventListener} so they only react after the commit.
+ */
+@Getter
+@AllArgsConstructor
+public class CryptoDataImportedEvent {
+
+    /**
+     * Symbols that received new or updated prices.
+     */
+    private final Set<String> symbols;
+}
@@ -27,6 +27,43 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles BadRequestException raised for invalid request parameters. Other IllegalArgumentExceptions are not
+     * caused by the request and fall through to the generic handlers.
+     *
+     * @param ex The exception instance.
+     * @return ResponseEntity with error details and HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex) {
+        logger.error("Invalid request: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ServiceTimeoutException raised when a request gave up waiting for a shared computation.
+     *
+     * @param ex The exception instance.
+     * @return ResponseEntity with error details and HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(ServiceTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleServiceTimeoutException(ServiceTimeoutException ex) {
+        logger.error("Service timeout: {}", ex.getMessage());
+        return buildErrorResponse("The service is busy. Please try again later.", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles SubscriptionLimitException raised when no more update subscribers are accepted.
+     *
+     * @param ex The exception instance.
+     * @return ResponseEntity with error details and HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(SubscriptionLimitException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriptionLimitException(SubscriptionLimitException ex) {
+        logger.error("Subscription rejected: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handles IOException specifically.
      *
@@ -0,0 +1,11 @@
+package com.example.cryptorecommendationsservice.exception;
+
+public class ServiceTimeoutException extends RuntimeException {
+    public ServiceTimeoutException(String message) {
+        super(message);
+    }
+
+    public ServiceTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
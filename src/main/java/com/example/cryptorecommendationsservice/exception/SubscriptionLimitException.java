@@ -0,0 +1,7 @@
+package com.example.cryptorecommendationsservice.exception;
+
+public class SubscriptionLimitException extends RuntimeException {
+    public SubscriptionLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.cryptorecommendationsservice.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads price series written by {@link ColumnarPriceWriter}.
+ */
+public final class ColumnarPriceReader {
+
+    private ColumnarPriceReader() {
+    }
+
+    /**
+     * Reads all series from the stream. The stream is read to the end but not closed.
+     *
+     * @param in the stream to read from.
+     * @return the series, in the order they were written.
+     * @throws IOException if reading fails or the data is not in the expected format.
+     */
+    public static List<FixedPointPriceSeries> read(InputStream in) throws IOException {
+        return read(ByteBuffer.wrap(in.readAllBytes()));
+    }
+
+    /**
+     * Reads all series from the buffer, starting at its position.
+     *
+     * @param data the encoded series.
+     * @return the series, in the order they were written.
+     * @throws IOException if the data is not in the expected format.
+     */
+    public static List<FixedPointPriceSeries> read(ByteBuffer data) throws IOException {
+        ByteBuffer buffer = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            byte[] magic = new byte[ColumnarPriceWriter.MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, ColumnarPriceWriter.MAGIC)) {
+                throw new IOException("Not a columnar price export");
+            }
+            byte version = buffer.get();
+            if (version != ColumnarPriceWriter.VERSION) {
+                throw new IOException("Unsupported columnar price export version: " + version);
+            }
+            byte priceScale = buffer.get();
+            if (priceScale != ColumnarPriceWriter.PRICE_SCALE) {
+                throw new IOException("Unsupported price scale: " + priceScale);
+            }
+
+            List<FixedPointPriceSeries> series = new ArrayList<>();
+            int symbolLength;
+            while ((symbolLength = Short.toUnsignedInt(buffer.getShort())) != 0) {
+                byte[] symbol = new byte[symbolLength];
+                buffer.get(symbol);
+                int rows = buffer.getInt();
+                long timestamp = buffer.getLong();
+                int timestampColumnEnd = buffer.getInt() + buffer.position();
+
+                long[] timestamps = new long[rows];
+                if (rows > 0) {
+                    timestamps[0] = timestamp;
+                }
+                for (int i = 1; i < rows; i++) {
+                    timestamp += unZigZag(getVarLong(buffer));
+                    timestamps[i] = timestamp;
+                }
+                if (buffer.position() != timestampColumnEnd) {
+                    throw new IOException("Corrupt timestamp column for " + new String(symbol, StandardCharsets.UTF_8));
+                }
+
+                long[] prices = new long[rows];
+                for (int i = 0; i < rows; i++) {
+                    prices[i] = buffer.getLong();
+                }
+                series.add(new FixedPointPriceSeries(new String(symbol, StandardCharsets.UTF_8), timestamps, prices));
+            }
+            return series;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated columnar price export", e);
+        }
+    }
+
+    private static long getVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.cryptorecommendationsservice.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes price series in a compact columnar binary format, one symbol block at a time.
+ * <p>
+ * All fixed-width fields are little-endian:
+ * <pre>
+ * file:   magic "CRPX" | u8 version (2) | u8 price scale (8) | symbol block... | u16 0 (end of blocks)
+ * block:  u16 symbol length (1..65535) | symbol (UTF-8) | i32 row count | i64 first timestamp
+ *         | i32 timestamp column length in bytes | timestamp column | price column
+ * </pre>
+ * The file does not state the number of blocks up front, so it can be written while the series are still being
+ * read; the end marker tells a complete file from a truncated one. The timestamp column holds the differences
+ * between consecutive timestamps (rows 1..n-1) as zig-zag encoded LEB128 varints, so hourly timestamps in
+ * milliseconds take four bytes each instead of eight. The price column holds one i64 per row, the price in
+ * fixed-point units of 10^-8. Prices are encoded exactly from the stored decimals; a price whose fixed-point value
+ * does not fit in an i64 (above about 9.2 * 10^10) is rejected rather than truncated.
+ * <p>
+ * Values are encoded straight from primitive arrays into one reused buffer that is written to the stream whenever it
+ * fills up and after every block, without per-row objects.
+ */
+public final class ColumnarPriceWriter {
+
+    static final byte[] MAGIC = {'C', 'R', 'P', 'X'};
+    static final byte VERSION = 2;
+    static final int PRICE_SCALE = 8;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Starts a file by writing its header to the buffer. The stream is not closed by the writer.
+     *
+     * @param out the stream to write to.
+     */
+    public ColumnarPriceWriter(OutputStream out) {
+        this.out = out;
+        buffer.put(MAGIC).put(VERSION).put((byte) PRICE_SCALE);
+    }
+
+    /**
+     * Writes a complete file holding the series.
+     *
+     * @param series the series to write, each ordered by timestamp.
+     * @param out    the stream to write to. It is not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    public static void write(List<FixedPointPriceSeries> series, OutputStream out) throws IOException {
+        ColumnarPriceWriter writer = new ColumnarPriceWriter(out);
+        for (FixedPointPriceSeries priceSeries : series) {
+            writer.write(priceSeries);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Encodes one series as a block and writes it to the stream.
+     *
+     * @param series the series, ordered by timestamp.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void write(FixedPointPriceSeries series) throws IOException {
+        byte[] symbol = symbolBytes(series);
+        long[] timestamps = series.getTimestamps();
+        long[] prices = series.getPrices();
+        int rows = series.size();
+
+        ensureRemaining(Short.BYTES + symbol.length + Integer.BYTES + Long.BYTES + Integer.BYTES);
+        buffer.putShort((short) symbol.length).put(symbol).putInt(rows)
+                .putLong(rows > 0 ? timestamps[0] : 0)
+                .putInt(timestampColumnBytes(timestamps, rows));
+
+        for (int i = 1; i < rows; i++) {
+            ensureRemaining(10);
+            putVarLong(buffer, zigZag(timestamps[i] - timestamps[i - 1]));
+        }
+        for (int i = 0; i < rows; i++) {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(prices[i]);
+        }
+        flush();
+    }
+
+    /**
+     * Writes the end marker and flushes the stream. The stream is not closed.
+     *
+     * @throws IOException if writing to the stream fails.
+     */
+    public void finish() throws IOException {
+        ensureRemaining(Short.BYTES);
+        buffer.putShort((short) 0);
+        flush();
+        out.flush();
+    }
+
+    /**
+     * Converts a price to its exact fixed-point value in units of 10^-8.
+     *
+     * @param symbol the symbol the price belongs to, for the error message.
+     * @param price  the price, with at most 8 decimal places.
+     * @return the fixed-point value.
+     * @throws ArithmeticException if the price has more decimal places or does not fit in an i64.
+     */
+    public static long toFixedPoint(String symbol, BigDecimal price) {
+        try {
+            return price.setScale(PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Price " + price.toPlainString() + " of " + symbol
+                    + " cannot be exported exactly as a fixed-point value with scale " + PRICE_SCALE);
+        }
+    }
+
+    private static byte[] symbolBytes(FixedPointPriceSeries series) {
+        byte[] symbol = series.getSymbol().getBytes(StandardCharsets.UTF_8);
+        if (symbol.length == 0 || symbol.length > 0xFFFF) {
+            throw new IllegalStateException("Symbol cannot be exported: " + series.getSymbol());
+        }
+        return symbol;
+    }
+
+    private static int timestampColumnBytes(long[] timestamps, int rows) {
+        int bytes = 0;
+        for (int i = 1; i < rows; i++) {
+            bytes += varLongSize(zigZag(timestamps[i] - timestamps[i - 1]));
+        }
+        return bytes;
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int varLongSize(long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.cryptorecommendationsservice.export;
+
+import com.example.cryptorecommendationsservice.scoring.SeriesBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Exact price history of a single crypto as primitive arrays ordered by timestamp. Prices are fixed-point values in
+ * units of 10^-8, the scale of the price column, so they carry every digit the database stores.
+ */
+@Getter
+@AllArgsConstructor
+public class FixedPointPriceSeries {
+
+    private final String symbol;
+    private final long[] timestamps;
+    private final long[] prices;
+
+    public int size() {
+        return prices.length;
+    }
+
+    /**
+     * Returns the price of a row as a decimal.
+     *
+     * @param row the row index.
+     * @return the price, with a scale of 8.
+     */
+    public BigDecimal getPrice(int row) {
+        return BigDecimal.valueOf(prices[row], ColumnarPriceWriter.PRICE_SCALE);
+    }
+
+    /**
+     * Builds series from stored decimals, rejecting prices that cannot be represented exactly.
+     */
+    public static final class Builder extends SeriesBuilder<FixedPointPriceSeries> {
+        private long[] prices = new long[0];
+
+        public Builder(String symbol) {
+            super(symbol);
+        }
+
+        @Override
+        protected void setPrice(int row, int capacity, BigDecimal price) {
+            if (prices.length < capacity) {
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            prices[row] = ColumnarPriceWriter.toFixedPoint(getSymbol(), price);
+        }
+
+        @Override
+        protected FixedPointPriceSeries build(String symbol, long[] timestamps, int size) {
+            return new FixedPointPriceSeries(symbol, timestamps, Arrays.copyOf(prices, size));
+        }
+    }
+}
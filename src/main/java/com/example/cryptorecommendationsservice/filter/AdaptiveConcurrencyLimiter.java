@@ -0,0 +1,167 @@
+package com.example.cryptorecommendationsservice.filter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose limit adapts to observed latency (AIMD). Every request that completes within the
+ * latency target while the limiter is busy raises the limit by {@code 1 / limit}, so it grows by about one per
+ * round trip; a slow or failed request cuts it by {@code backoffRatio}, at most once per round trip: requests that
+ * were already in flight when the limit was cut do not cut it again. Requests above the limit wait in a bounded
+ * queue for a bounded time and are rejected after that.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    // Completions left before the requests in flight at the last backoff have finished
+    private int inFlightAtBackoff;
+    private long accepted;
+    private long rejected;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyTarget, int maxQueueSize, Duration maxQueueWait) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min " + minLimit + ", max " + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+    }
+
+    /**
+     * Acquires a permit, queueing if the limit is reached.
+     *
+     * @return true if a permit was acquired; false if the request should be shed.
+     * @throws InterruptedException if interrupted while queued.
+     */
+    public boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                accepted++;
+                return true;
+            }
+            if (queued >= maxQueueSize) {
+                rejected++;
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxQueueWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected++;
+                        return false;
+                    }
+                    remaining = permitAvailable.awaitNanos(remaining);
+                }
+                inFlight++;
+                accepted++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a permit and feeds the request's latency into the limit.
+     *
+     * @param latencyNanos the time the request took once it had a permit, excluding any time spent queued.
+     * @param failed       whether the request failed with a server error, which also backs off the limit.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            if (failed || latencyNanos > latencyTargetNanos) {
+                if (inFlightAtBackoff == 0) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    inFlightAtBackoff = inFlight;
+                }
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            inFlight--;
+            inFlightAtBackoff = Math.max(0, inFlightAtBackoff - 1);
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a permit without adjusting the limit, for requests whose latency says nothing about load (for
+     * example requests that continue asynchronously).
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            inFlightAtBackoff = Math.max(0, inFlightAtBackoff - 1);
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the current limit, in-flight requests, queue depth and counters.
+     */
+    public Map<String, Object> getMetrics() {
+        lock.lock();
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("limit", (int) limit);
+            metrics.put("minLimit", minLimit);
+            metrics.put("maxLimit", maxLimit);
+            metrics.put("inFlight", inFlight);
+            metrics.put("queueDepth", queued);
+            metrics.put("maxQueueSize", maxQueueSize);
+            metrics.put("latencyTargetMillis", TimeUnit.NANOSECONDS.toMillis(latencyTargetNanos));
+            metrics.put("accepted", accepted);
+            metrics.put("rejected", rejected);
+            return metrics;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cryptorecommendationsservice.filter;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Sheds or queues API requests before they reach the services. Imports, exports and reads are limited separately,
+ * so a burst of heavy imports or exports cannot use up the concurrency that cheap reads need.
+ */
+@Component
+public class LoadSheddingFilter implements Filter {
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter importLimiter;
+    private final AdaptiveConcurrencyLimiter exportLimiter;
+
+    @Autowired
+    public LoadSheddingFilter(@Qualifier("readConcurrencyLimiter") AdaptiveConcurrencyLimiter readLimiter,
+                              @Qualifier("importConcurrencyLimiter") AdaptiveConcurrencyLimiter importLimiter,
+                              @Qualifier("exportConcurrencyLimiter") AdaptiveConcurrencyLimiter exportLimiter) {
+        this.readLimiter = readLimiter;
+        this.importLimiter = importLimiter;
+        this.exportLimiter = exportLimiter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        AdaptiveConcurrencyLimiter limiter = limiterFor(path);
+
+        boolean acquired;
+        try {
+            acquired = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            httpResponse.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            httpResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE); // Shed the request
+            return;
+        }
+
+        // Time spent queued is not service latency; counting it would keep the limit down once requests queue
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = httpResponse.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                limiter.release(); // Long-lived async responses say nothing about load
+            } else {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String path) {
+        if (path.startsWith("/api/import")) {
+            return importLimiter;
+        }
+        return path.startsWith("/api/export") ? exportLimiter : readLimiter;
+    }
+}
@@ -2,38 +2,104 @@ package com.example.cryptorecommendationsservice.filter;
 
 import io.github.bucket4j.Bucket;
 import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static java.time.Duration.ofSeconds;
-
 @Component
 public class RateLimitingFilter implements Filter {
 
     // Map to hold buckets for each client IP
     private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
 
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final boolean enabled;
+    private final long capacity;
+    private final Duration refillPeriod;
+    private final Map<String, Long> routeCosts;
+
+    /**
+     * @param routeCosts token costs per route as {@code pattern=cost} entries, matched in order with Ant-style
+     *                   patterns; routes without an entry cost one token. Costs are capped at the bucket capacity.
+     */
+    public RateLimitingFilter(@Value("${crypto.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${crypto.rate-limit.capacity:20}") long capacity,
+                              @Value("${crypto.rate-limit.refill-period:60s}") Duration refillPeriod,
+                              @Value("${crypto.rate-limit.route-costs:/api/import/**=5,/api/export/**=4,/api/crypto/recommendations=2}") List<String> routeCosts) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillPeriod = refillPeriod;
+        this.routeCosts = parseRouteCosts(routeCosts);
+    }
+
+    private Map<String, Long> parseRouteCosts(List<String> entries) {
+        Map<String, Long> costs = new LinkedHashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit route cost: " + entry);
+            }
+            long cost = Long.parseLong(entry.substring(separator + 1).trim());
+            costs.put(entry.substring(0, separator).trim(), Math.max(1, Math.min(capacity, cost)));
+        }
+        return costs;
+    }
+
     private Bucket createNewBucket() {
-        // Create a new bucket with capacity of 20 tokens, refilled every 60 seconds
+        // Create a new bucket with the configured capacity (20 tokens by default), fully refilled every refill period
         return Bucket.builder()
-                .addLimit(limit -> limit.capacity(20).refillGreedy(20, ofSeconds(60)).initialTokens(20))
+                .addLimit(limit -> limit.capacity(capacity).refillGreedy(capacity, refillPeriod).initialTokens(capacity))
                 .build();
     }
 
+    /**
+     * Returns the number of tokens a request to the given path costs.
+     *
+     * @param path the request path, without the context path.
+     * @return the cost of the first matching route, or 1 if no route matches.
+     */
+    long costOf(String path) {
+        for (Map.Entry<String, Long> routeCost : routeCosts.entrySet()) {
+            if (pathMatcher.match(routeCost.getKey(), path)) {
+                return routeCost.getValue();
+            }
+        }
+        return 1;
+    }
+
+    public Map<String, Long> getRouteCosts() {
+        return routeCosts;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
         String clientIp = request.getRemoteAddr(); // Get client IP address
 
         // Create a new bucket for the client IP if it doesn't already exist
-        buckets.putIfAbsent(clientIp, createNewBucket());
-        Bucket bucket = buckets.get(clientIp);
+        Bucket bucket = buckets.computeIfAbsent(clientIp, ip -> createNewBucket());
 
-        // Check if the request can be processed
-        if (bucket.tryConsume(1)) {
+        // Check if the request can be processed; expensive routes take more tokens
+        if (bucket.tryConsume(costOf(httpRequest.getRequestURI().substring(httpRequest.getContextPath().length())))) {
             chain.doFilter(request, response); // Forward the request if rate limit is not hit
         } else {
             ((HttpServletResponse) response).setStatus(429); // Return 429 if limit exceeded
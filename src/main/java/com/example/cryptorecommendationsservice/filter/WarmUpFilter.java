@@ -0,0 +1,39 @@
+package com.example.cryptorecommendationsservice.filter;
+
+import com.example.cryptorecommendationsservice.service.DataLoadState;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class WarmUpFilter implements Filter {
+
+    private final DataLoadState dataLoadState;
+    private final String retryAfterSeconds;
+
+    @Autowired
+    public WarmUpFilter(DataLoadState dataLoadState,
+                        @Value("${crypto.startup-load.retry-after-seconds:5}") int retryAfterSeconds) {
+        this.dataLoadState = dataLoadState;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        // A failed load serves whatever was loaded; it is reported DOWN through the dataLoad health component only
+        if (dataLoadState.isFinished()) {
+            chain.doFilter(request, response);
+        } else {
+            // Answer 503 with Retry-After while the startup data load is still running
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            httpResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.cryptorecommendationsservice.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * Writes the synthetic dataset of the {@code scale-test} profile: one {@code <symbol>_values.csv} file per symbol in
+ * {@code crypto.synthetic.directory}, which the startup data load then imports. A marker file records the parameters
+ * of the last complete generation, so restarting with the same parameters reuses the files instead of regenerating
+ * them.
+ */
+@Component
+@Profile("scale-test")
+public class SyntheticDataSet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataSet.class);
+
+    private static final String MARKER_FILE = "dataset.properties";
+
+    private final Path directory;
+    private final long seed;
+    private final int symbols;
+    private final Instant start;
+    private final Duration tickInterval;
+    private final Duration span;
+
+    @Autowired
+    public SyntheticDataSet(@Value("${crypto.synthetic.directory:./target/scale-test-data}") Path directory,
+                            @Value("${crypto.synthetic.seed:42}") long seed,
+                            @Value("${crypto.synthetic.symbols:50}") int symbols,
+                            @Value("${crypto.synthetic.start:2022-01-01T00:00:00Z}") String start,
+                            @Value("${crypto.synthetic.tick-interval:1m}") Duration tickInterval,
+                            @Value("${crypto.synthetic.span:30d}") Duration span) {
+        this.directory = directory;
+        this.seed = seed;
+        this.symbols = symbols;
+        this.start = Instant.parse(start);
+        this.tickInterval = tickInterval;
+        this.span = span;
+    }
+
+    /**
+     * Generates the dataset unless the directory already holds one generated with the same parameters.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    public void generate() throws IOException {
+        Properties parameters = new Properties();
+        parameters.setProperty("seed", Long.toString(seed));
+        parameters.setProperty("symbols", Integer.toString(symbols));
+        parameters.setProperty("start", start.toString());
+        parameters.setProperty("tick-interval", tickInterval.toString());
+        parameters.setProperty("span", span.toString());
+
+        Path marker = directory.resolve(MARKER_FILE);
+        if (Files.exists(marker) && parameters.equals(readMarker(marker))) {
+            logger.info("Reusing synthetic dataset in {} ({})", directory, parameters);
+            return;
+        }
+
+        // Drop the marker first so an interrupted generation is never mistaken for a complete one
+        Files.createDirectories(directory);
+        Files.deleteIfExists(marker);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : stale) {
+                Files.delete(file);
+            }
+        }
+
+        SyntheticMarketDataGenerator generator = new SyntheticMarketDataGenerator(seed, symbols, start, tickInterval, span);
+        logger.info("Generating {} synthetic rows for {} symbols into {}", generator.getRowCount(), symbols, directory);
+        long startNanos = System.nanoTime();
+        generator.writeSymbolFiles(directory);
+        try (Writer writer = Files.newBufferedWriter(marker, StandardCharsets.UTF_8)) {
+            parameters.store(writer, "Synthetic dataset parameters");
+        }
+        logger.info("Generated synthetic dataset in {} ms", (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private Properties readMarker(Path marker) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(marker, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+}
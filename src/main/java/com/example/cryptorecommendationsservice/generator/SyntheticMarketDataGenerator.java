@@ -0,0 +1,274 @@
+package com.example.cryptorecommendationsservice.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates deterministic random-walk price series in the {@code timestamp,symbol,price} CSV format of the bundled
+ * files.
+ * <p>
+ * Every symbol follows a geometric Brownian motion with its own start price (log-uniform between 0.01 and 50,000)
+ * and annualized volatility (30% to 120%). Each symbol draws from its own random stream, derived from the seed and
+ * the symbol's index, so a symbol's series is the same whether it is written alone or interleaved with others, and
+ * the same seed always produces the same bytes. Rows are formatted straight into a byte buffer and streamed, so the
+ * row count (up to 10^9 and beyond) is only limited by disk space.
+ * <p>
+ * The class has no dependencies outside the JDK and can be run from the command line:
+ * <pre>
+ * java -cp target/classes com.example.cryptorecommendationsservice.generator.SyntheticMarketDataGenerator \
+ *     --seed=42 --symbols=100 --start=2022-01-01T00:00:00Z --tick-interval=PT1M --span=P30D --output-dir=data
+ * </pre>
+ */
+public final class SyntheticMarketDataGenerator {
+
+    private static final double YEAR_MILLIS = 365.25 * 24 * 60 * 60 * 1000;
+    private static final double MIN_PRICE = 1e-8;
+    private static final byte[] HEADER = "timestamp,symbol,price\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final long seed;
+    private final int symbols;
+    private final long startMillis;
+    private final long tickIntervalMillis;
+    private final long ticks;
+
+    /**
+     * @param seed         the seed; the same parameters always generate the same data.
+     * @param symbols      the number of symbols.
+     * @param start        the timestamp of the first tick.
+     * @param tickInterval the time between two ticks of a symbol, at least one millisecond.
+     * @param span         the time covered; every symbol gets {@code span / tickInterval} ticks.
+     */
+    public SyntheticMarketDataGenerator(long seed, int symbols, Instant start, Duration tickInterval, Duration span) {
+        if (symbols < 1) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        if (tickInterval.toMillis() < 1) {
+            throw new IllegalArgumentException("Tick interval must be at least one millisecond");
+        }
+        this.seed = seed;
+        this.symbols = symbols;
+        this.startMillis = start.toEpochMilli();
+        this.tickIntervalMillis = tickInterval.toMillis();
+        this.ticks = span.toMillis() / tickIntervalMillis;
+    }
+
+    public long getRowCount() {
+        return ticks * symbols;
+    }
+
+    public List<String> getSymbols() {
+        List<String> names = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            names.add(symbol(i));
+        }
+        return names;
+    }
+
+    /**
+     * @param index the symbol index, from 0.
+     * @return the symbol name, e.g. {@code SYN007}; names are zero-padded so they sort by index.
+     */
+    public String symbol(int index) {
+        String number = Integer.toString(index);
+        int width = Integer.toString(symbols - 1).length();
+        return "SYN" + "0".repeat(width - number.length()) + number;
+    }
+
+    /**
+     * Writes all symbols into one CSV stream, ordered by timestamp and then by symbol, like a live feed.
+     *
+     * @param out the stream to write to; it is flushed but not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeCsv(OutputStream out) throws IOException {
+        RandomWalk[] walks = new RandomWalk[symbols];
+        byte[][] names = new byte[symbols][];
+        for (int i = 0; i < symbols; i++) {
+            walks[i] = new RandomWalk(i);
+            names[i] = symbol(i).getBytes(StandardCharsets.US_ASCII);
+        }
+        CsvRowWriter writer = new CsvRowWriter(out);
+        for (long tick = 0; tick < ticks; tick++) {
+            long timestamp = startMillis + tick * tickIntervalMillis;
+            for (int i = 0; i < symbols; i++) {
+                writer.writeRow(timestamp, names[i], walks[i].next());
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes a single symbol as one CSV stream, ordered by timestamp, like the bundled per-symbol files.
+     *
+     * @param index the symbol index, from 0.
+     * @param out   the stream to write to; it is flushed but not closed.
+     * @throws IOException if writing fails.
+     */
+    public void writeSymbolCsv(int index, OutputStream out) throws IOException {
+        RandomWalk walk = new RandomWalk(index);
+        byte[] name = symbol(index).getBytes(StandardCharsets.US_ASCII);
+        CsvRowWriter writer = new CsvRowWriter(out);
+        for (long tick = 0; tick < ticks; tick++) {
+            writer.writeRow(startMillis + tick * tickIntervalMillis, name, walk.next());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes one {@code <symbol>_values.csv} file per symbol into a directory, several symbols in parallel.
+     *
+     * @param directory the directory, created if missing.
+     * @throws IOException if writing fails.
+     */
+    public void writeSymbolFiles(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try {
+            IntStream.range(0, symbols).parallel().forEach(index -> {
+                Path file = directory.resolve(symbol(index) + "_values.csv");
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+                    writeSymbolCsv(index, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Geometric Brownian motion of one symbol with its own random stream.
+     */
+    private final class RandomWalk {
+
+        private final SplittableRandom random;
+        private final double sigma;
+        private double price;
+
+        private RandomWalk(int index) {
+            // Mix the seed and index so that neighbouring seeds and symbols get unrelated streams
+            this.random = new SplittableRandom(new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (index + 1))).nextLong());
+            double annualVolatility = 0.3 + random.nextDouble() * 0.9;
+            this.sigma = annualVolatility * Math.sqrt(tickIntervalMillis / YEAR_MILLIS);
+            this.price = Math.exp(Math.log(0.01) + random.nextDouble() * (Math.log(50_000) - Math.log(0.01)));
+        }
+
+        private double next() {
+            double current = price;
+            price = Math.max(MIN_PRICE, price * Math.exp(sigma * random.nextGaussian() - sigma * sigma / 2));
+            return current;
+        }
+    }
+
+    /**
+     * Formats rows into a byte buffer without creating strings per row.
+     */
+    private static final class CsvRowWriter {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[1 << 16];
+        private final byte[] digits = new byte[20];
+        private int position;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.out = out;
+            out.write(HEADER);
+        }
+
+        private void writeRow(long timestamp, byte[] symbol, double price) throws IOException {
+            if (buffer.length - position < 64 + symbol.length) {
+                drain();
+            }
+            writeLong(timestamp);
+            buffer[position++] = ',';
+            System.arraycopy(symbol, 0, buffer, position, symbol.length);
+            position += symbol.length;
+            buffer[position++] = ',';
+
+            // Fixed-point with 8 decimals, the precision the import keeps, without trailing zeros
+            long units = Math.round(price * 1e8);
+            writeLong(units / 100_000_000);
+            long fraction = units % 100_000_000;
+            if (fraction != 0) {
+                buffer[position++] = '.';
+                for (long divisor = 10_000_000; fraction != 0; divisor /= 10) {
+                    buffer[position++] = (byte) ('0' + fraction / divisor);
+                    fraction %= divisor;
+                }
+            }
+            buffer[position++] = '\n';
+        }
+
+        private void writeLong(long value) {
+            int length = 0;
+            do {
+                digits[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            while (length > 0) {
+                buffer[position++] = digits[--length];
+            }
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+
+        private void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+    }
+
+    /**
+     * Command line entry point. Options: {@code --seed} (default 42), {@code --symbols} (default 10),
+     * {@code --start} (ISO-8601 instant, default 2022-01-01T00:00:00Z), {@code --tick-interval} (ISO-8601 duration,
+     * default PT1H), {@code --span} (ISO-8601 duration, default P30D), and either {@code --output-dir} for one file per
+     * symbol or {@code --output} for a single interleaved file (standard output if neither is given).
+     *
+     * @param args the options, as {@code --name=value}.
+     * @throws IOException if writing fails.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        SyntheticMarketDataGenerator generator = new SyntheticMarketDataGenerator(
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("symbols", "10")),
+                Instant.parse(options.getOrDefault("start", "2022-01-01T00:00:00Z")),
+                Duration.parse(options.getOrDefault("tick-interval", "PT1H")),
+                Duration.parse(options.getOrDefault("span", "P30D")));
+
+        if (options.containsKey("output-dir")) {
+            generator.writeSymbolFiles(Path.of(options.get("output-dir")));
+        } else if (options.containsKey("output")) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(options.get("output"))), 1 << 16)) {
+                generator.writeCsv(out);
+            }
+        } else {
+            generator.writeCsv(System.out);
+        }
+        System.err.printf("Generated %,d rows for %d symbols%n", generator.getRowCount(), generator.symbols);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.cryptorecommendationsservice.health;
+
+import com.example.cryptorecommendationsservice.service.DataLoadState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the startup data load as the {@code dataLoad} health component. It is part of the readiness group,
+ * so the readiness probe stays down until the initial data is loaded while liveness is unaffected.
+ */
+@Component("dataLoad")
+public class DataLoadHealthIndicator implements HealthIndicator {
+
+    private final DataLoadState dataLoadState;
+
+    @Autowired
+    public DataLoadHealthIndicator(DataLoadState dataLoadState) {
+        this.dataLoadState = dataLoadState;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (dataLoadState.getStatus()) {
+            case READY -> Health.up();
+            case FAILED -> Health.down();
+            default -> Health.outOfService();
+        };
+        return builder.withDetails(dataLoadState.getProgress()).build();
+    }
+}
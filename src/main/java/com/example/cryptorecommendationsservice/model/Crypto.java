@@ -7,6 +7,9 @@ import java.util.List;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_crypto_symbol", columnList = "symbol", unique = true)
+})
 public class Crypto {
 
     @Id
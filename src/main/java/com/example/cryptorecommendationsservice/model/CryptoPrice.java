@@ -9,6 +9,9 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "crypto_price", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"timestamp", "crypto_id"})
+}, indexes = {
+        // Serves per-symbol lookups ordered by time; the unique constraint leads with timestamp
+        @Index(name = "idx_crypto_price_crypto_timestamp", columnList = "crypto_id, timestamp")
 })
 public class CryptoPrice {
 
@@ -0,0 +1,35 @@
+package com.example.cryptorecommendationsservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized {@link com.example.cryptorecommendationsservice.sketch.QuantileSketch} of the prices of one crypto on
+ * one day (system default time zone).
+ */
+@Data
+@Entity
+@Table(name = "crypto_price_sketch", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"crypto_id", "price_date"})
+})
+public class CryptoPriceSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "crypto_id")
+    private Crypto crypto;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(name = "price_count", nullable = false)
+    private long priceCount;
+
+    @Column(nullable = false, length = 65536)
+    private byte[] sketch;
+}
@@ -1,31 +1,42 @@
 package com.example.cryptorecommendationsservice.repository;
 
 import com.example.cryptorecommendationsservice.model.CryptoPrice;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long> {
+public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>, CryptoPriceRepositoryCustom {
 
     @Modifying
     @Transactional
     @Query(value = "TRUNCATE TABLE crypto_price", nativeQuery = true)
     void truncateTable();
 
-    @Query("SELECT cp.crypto.symbol AS symbol, " +
-            "MIN(cp.price) AS minPrice, " +
-            "MAX(cp.price) AS maxPrice, " +
-            "(SELECT cp1.price FROM CryptoPrice cp1 WHERE cp1.crypto.symbol = :symbol ORDER BY cp1.timestamp ASC LIMIT 1) AS oldestPrice, " +
-            "(SELECT cp2.price FROM CryptoPrice cp2 WHERE cp2.crypto.symbol = :symbol ORDER BY cp2.timestamp DESC LIMIT 1) AS newestPrice " +
-            "FROM CryptoPrice cp " +
-            "WHERE cp.crypto.symbol = :symbol " +
-            "GROUP BY cp.crypto.symbol")
+    /**
+     * Computes min, max, oldest and newest price of a symbol in a single pass over its rows, which are read
+     * through idx_crypto_price_crypto_timestamp.
+     */
+    @Query(value = "SELECT symbol, min_price, max_price, oldest_price, newest_price FROM (" +
+            "SELECT c.symbol AS symbol, " +
+            "MIN(cp.price) OVER () AS min_price, " +
+            "MAX(cp.price) OVER () AS max_price, " +
+            "FIRST_VALUE(cp.price) OVER (ORDER BY cp.timestamp ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING) AS oldest_price, " +
+            "LAST_VALUE(cp.price) OVER (ORDER BY cp.timestamp ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING) AS newest_price, " +
+            "ROW_NUMBER() OVER (ORDER BY cp.timestamp) AS rn " +
+            "FROM crypto_price cp JOIN crypto c ON c.id = cp.crypto_id " +
+            "WHERE c.symbol = :symbol) stats " +
+            "WHERE rn = 1",
+            nativeQuery = true)
     Optional<Object[]> findStatsBySymbol(@Param("symbol") String symbol);
 
     @Query("SELECT cp.crypto.symbol AS symbol, " +
@@ -34,6 +45,47 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
             "GROUP BY cp.crypto.symbol")
     List<Object[]> findNormalizedAllStats();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT cp.crypto.symbol, cp.timestamp, cp.price " +
+            "FROM CryptoPrice cp " +
+            "ORDER BY cp.crypto.symbol, cp.timestamp")
+    Stream<Object[]> streamAllOrderedBySymbolAndTimestamp();
+
+    /**
+     * Streams the prices of the given symbols, ordered like {@link #streamAllOrderedBySymbolAndTimestamp()}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT cp.crypto.symbol, cp.timestamp, cp.price " +
+            "FROM CryptoPrice cp " +
+            "WHERE cp.crypto.symbol IN :symbols " +
+            "ORDER BY cp.crypto.symbol, cp.timestamp")
+    Stream<Object[]> streamOrderedBySymbolAndTimestamp(@Param("symbols") Collection<String> symbols);
+
+    /**
+     * Streams the timestamps and prices of one crypto in timestamp order through idx_crypto_price_crypto_timestamp.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT cp.timestamp, cp.price " +
+            "FROM CryptoPrice cp " +
+            "WHERE cp.crypto.id = :cryptoId " +
+            "ORDER BY cp.timestamp")
+    Stream<Object[]> streamPricesOrderedByTimestamp(@Param("cryptoId") long cryptoId);
+
+    /**
+     * Reads the timestamps and prices of one crypto in [from, to) through idx_crypto_price_crypto_timestamp.
+     */
+    @Query("SELECT cp.timestamp, cp.price " +
+            "FROM CryptoPrice cp " +
+            "WHERE cp.crypto.id = :cryptoId AND cp.timestamp >= :from AND cp.timestamp < :to")
+    List<Object[]> findPricesInRange(@Param("cryptoId") long cryptoId, @Param("from") long from, @Param("to") long to);
+
+    /**
+     * Counts the prices of one crypto in [from, to] through idx_crypto_price_crypto_timestamp.
+     */
+    @Query("SELECT COUNT(cp) FROM CryptoPrice cp " +
+            "WHERE cp.crypto.id = :cryptoId AND cp.timestamp BETWEEN :from AND :to")
+    long countInRange(@Param("cryptoId") long cryptoId, @Param("from") long from, @Param("to") long to);
+
     @Query("SELECT cp.crypto.symbol AS symbol, " +
             "MIN(cp.price) AS minPrice, " +
             "MAX(cp.price) AS maxPrice, " +
@@ -43,15 +95,4 @@ public interface CryptoPriceRepository extends JpaRepository<CryptoPrice, Long>
             "GROUP BY cp.crypto.symbol")
     List<Object[]> findNormalizedRangeForDate(@Param("startOfDay") long startOfDay, @Param("endOfDay") long endOfDay);
 
-    @Modifying
-    @Transactional
-    @Query(value = "MERGE INTO crypto_price AS target " +
-            "USING (SELECT CAST(? AS BIGINT) AS timestamp, CAST(? AS DECIMAL(20, 8)) AS price, " +
-            "(SELECT id FROM crypto WHERE symbol = ?) AS crypto_id) AS source " +
-            "ON target.crypto_id = source.crypto_id AND target.timestamp = source.timestamp " +
-            "WHEN MATCHED THEN UPDATE SET target.price = source.price " +
-            "WHEN NOT MATCHED THEN INSERT (timestamp, price, crypto_id) VALUES (source.timestamp, source.price, source.crypto_id)",
-            nativeQuery = true)
-    void upsertCryptoPrice(long timestamp, BigDecimal price, String symbol);
-
 }
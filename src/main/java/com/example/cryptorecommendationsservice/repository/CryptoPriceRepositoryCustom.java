@@ -0,0 +1,18 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import java.util.List;
+
+public interface CryptoPriceRepositoryCustom {
+
+    /**
+     * Inserts or updates prices of one crypto using JDBC batches, so a batch costs one round trip instead of one
+     * statement per row. A later row for the same timestamp wins. Existing rows are updated in one batch and the
+     * rows that update did not find are inserted in a second one, so the batch update counts tell the inserted rows
+     * apart without counting queries. Callers must hold the crypto's lock, so no other writer inserts in between.
+     *
+     * @param cryptoId the id of the crypto the prices belong to.
+     * @param rows     the rows to write.
+     * @return the number of rows inserted; every other row updated an existing one.
+     */
+    long upsertCryptoPrices(long cryptoId, List<CryptoPriceRow> rows);
+}
@@ -0,0 +1,69 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CryptoPriceRepositoryCustomImpl implements CryptoPriceRepositoryCustom {
+
+    private static final String UPDATE_SQL = "UPDATE crypto_price SET price = ? WHERE crypto_id = ? AND timestamp = ?";
+    private static final String INSERT_SQL = "INSERT INTO crypto_price (crypto_id, timestamp, price) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public CryptoPriceRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                           @Value("${crypto.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long upsertCryptoPrices(long cryptoId, List<CryptoPriceRow> rows) {
+        // Only the last row per timestamp is written, so the insert batch never holds the same key twice
+        Map<Long, CryptoPriceRow> lastRows = new LinkedHashMap<>();
+        for (CryptoPriceRow row : rows) {
+            lastRows.remove(row.getTimestamp());
+            lastRows.put(row.getTimestamp(), row);
+        }
+        List<CryptoPriceRow> distinctRows = new ArrayList<>(lastRows.values());
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, distinctRows, batchSize, (statement, row) -> {
+            statement.setBigDecimal(1, row.getPrice());
+            statement.setLong(2, cryptoId);
+            statement.setLong(3, row.getTimestamp());
+        });
+        List<CryptoPriceRow> missingRows = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missingRows.add(distinctRows.get(index));
+                }
+                index++;
+            }
+        }
+        if (missingRows.isEmpty()) {
+            return 0;
+        }
+
+        int[][] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, missingRows, batchSize, (statement, row) -> {
+            statement.setLong(1, cryptoId);
+            statement.setLong(2, row.getTimestamp());
+            statement.setBigDecimal(3, row.getPrice());
+        });
+        long insertedRows = 0;
+        for (int[] batch : inserted) {
+            for (int count : batch) {
+                insertedRows += count;
+            }
+        }
+        return insertedRows;
+    }
+}
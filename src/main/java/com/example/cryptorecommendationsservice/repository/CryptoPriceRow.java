@@ -0,0 +1,16 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * A parsed price row waiting to be written by {@link CryptoPriceRepositoryCustom#upsertCryptoPrices}.
+ */
+@Getter
+@AllArgsConstructor
+public class CryptoPriceRow {
+    private final long timestamp;
+    private final BigDecimal price;
+}
@@ -0,0 +1,32 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import com.example.cryptorecommendationsservice.model.CryptoPriceSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CryptoPriceSketchRepository extends JpaRepository<CryptoPriceSketch, Long>, CryptoPriceSketchRepositoryCustom {
+
+    /**
+     * Reads the serialized daily sketches of a crypto between two dates, inclusive, through the
+     * (crypto_id, price_date) unique index.
+     */
+    @Query("SELECT s.sketch FROM CryptoPriceSketch s " +
+            "WHERE s.crypto.id = :cryptoId AND s.priceDate BETWEEN :from AND :to")
+    List<byte[]> findSketches(@Param("cryptoId") long cryptoId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Sums the price counts of all daily sketches of a crypto, which equals its number of stored prices while the
+     * sketches are complete.
+     */
+    @Query("SELECT COALESCE(SUM(s.priceCount), 0) FROM CryptoPriceSketch s WHERE s.crypto.id = :cryptoId")
+    long sumPriceCounts(@Param("cryptoId") long cryptoId);
+
+    @Modifying
+    @Query("DELETE FROM CryptoPriceSketch s WHERE s.crypto.id = :cryptoId")
+    void deleteByCryptoId(@Param("cryptoId") long cryptoId);
+}
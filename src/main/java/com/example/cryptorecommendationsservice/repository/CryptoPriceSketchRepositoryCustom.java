@@ -0,0 +1,17 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import com.example.cryptorecommendationsservice.sketch.QuantileSketch;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface CryptoPriceSketchRepositoryCustom {
+
+    /**
+     * Inserts or replaces the daily sketches of one crypto in a single JDBC batch.
+     *
+     * @param cryptoId the id of the crypto the sketches belong to.
+     * @param sketches the sketches to write, per day.
+     */
+    void upsertSketches(long cryptoId, Map<LocalDate, QuantileSketch> sketches);
+}
@@ -0,0 +1,43 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import com.example.cryptorecommendationsservice.sketch.QuantileSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class CryptoPriceSketchRepositoryCustomImpl implements CryptoPriceSketchRepositoryCustom {
+
+    private static final String UPSERT_SQL = "MERGE INTO crypto_price_sketch AS target " +
+            "USING (SELECT CAST(? AS BIGINT) AS crypto_id, CAST(? AS DATE) AS price_date, " +
+            "CAST(? AS BIGINT) AS price_count, CAST(? AS VARBINARY(65536)) AS sketch) AS source " +
+            "ON target.crypto_id = source.crypto_id AND target.price_date = source.price_date " +
+            "WHEN MATCHED THEN UPDATE SET target.price_count = source.price_count, target.sketch = source.sketch " +
+            "WHEN NOT MATCHED THEN INSERT (crypto_id, price_date, price_count, sketch) " +
+            "VALUES (source.crypto_id, source.price_date, source.price_count, source.sketch)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public CryptoPriceSketchRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                                 @Value("${crypto.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void upsertSketches(long cryptoId, Map<LocalDate, QuantileSketch> sketches) {
+        List<Map.Entry<LocalDate, QuantileSketch>> entries = List.copyOf(sketches.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, batchSize, (statement, entry) -> {
+            statement.setLong(1, cryptoId);
+            statement.setDate(2, Date.valueOf(entry.getKey()));
+            statement.setLong(3, entry.getValue().getCount());
+            statement.setBytes(4, entry.getValue().toBytes());
+        });
+    }
+}
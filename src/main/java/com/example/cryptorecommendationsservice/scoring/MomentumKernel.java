@@ -0,0 +1,24 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Momentum: relative change from the oldest to the newest price.
+ */
+@Component
+public class MomentumKernel implements ScoringKernel {
+
+    public static final String NAME = "momentum";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double score(PriceSeries series, PriceVectorOps ops) {
+        double[] prices = series.getPrices();
+        double oldest = prices[0];
+        return oldest == 0 ? 0 : (prices[prices.length - 1] - oldest) / oldest;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Normalized range: (max - min) / min, or 0 when the minimum price is 0.
+ */
+@Component
+public class NormalizedRangeKernel implements ScoringKernel {
+
+    public static final String NAME = "normalizedRange";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double score(PriceSeries series, PriceVectorOps ops) {
+        double min = ops.min(series.getPrices(), series.size());
+        double max = ops.max(series.getPrices(), series.size());
+        return min == 0 ? 0 : (max - min) / min;
+    }
+}
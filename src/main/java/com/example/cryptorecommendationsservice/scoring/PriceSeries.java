@@ -0,0 +1,21 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Price history of a single crypto as primitive arrays ordered by timestamp, which is the layout the scoring
+ * kernels operate on.
+ */
+@Getter
+@AllArgsConstructor
+public class PriceSeries {
+
+    private final String symbol;
+    private final long[] timestamps;
+    private final double[] prices;
+
+    public int size() {
+        return prices.length;
+    }
+}
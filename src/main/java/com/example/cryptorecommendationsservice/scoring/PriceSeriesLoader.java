@@ -0,0 +1,132 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import com.example.cryptorecommendationsservice.repository.CryptoPriceRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the price table, ordered by symbol and timestamp, into per-symbol series. The representation of the prices
+ * is chosen by the {@link SeriesBuilder} passed in: doubles for scoring, exact fixed-point values for export.
+ */
+@Component
+public class PriceSeriesLoader {
+
+    private final CryptoPriceRepository cryptoPriceRepository;
+
+    @Autowired
+    public PriceSeriesLoader(CryptoPriceRepository cryptoPriceRepository) {
+        this.cryptoPriceRepository = cryptoPriceRepository;
+    }
+
+    /**
+     * Loads every price series. Runs in a transaction because the underlying query result is streamed.
+     *
+     * @return the price series of all cryptos, ordered by symbol.
+     */
+    @Transactional
+    public List<PriceSeries> loadAll() {
+        return collect(cryptoPriceRepository.streamAllOrderedBySymbolAndTimestamp());
+    }
+
+    /**
+     * Loads the price series of the given symbols. Symbols without prices are left out.
+     *
+     * @param symbols the symbols to load.
+     * @return their price series, ordered by symbol.
+     */
+    @Transactional
+    public List<PriceSeries> load(Collection<String> symbols) {
+        if (symbols.isEmpty()) {
+            return List.of();
+        }
+        return collect(cryptoPriceRepository.streamOrderedBySymbolAndTimestamp(symbols));
+    }
+
+    private List<PriceSeries> collect(Stream<Object[]> rows) {
+        List<PriceSeries> result = new ArrayList<>();
+        try {
+            forEachSeries(rows, DoubleSeriesBuilder::new, result::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Adding to a list does not throw
+        }
+        return result;
+    }
+
+    /**
+     * Streams every price series from one cursor and hands each to the consumer as soon as its last row has been
+     * read, so at most one series is held in memory at a time.
+     *
+     * @param builders creates the builder for a symbol's series.
+     * @param consumer receives the series, ordered by symbol.
+     * @param <S>      the type of series built.
+     * @throws IOException if the consumer fails.
+     */
+    @Transactional
+    public <S> void forEachSeries(Function<String, SeriesBuilder<S>> builders, SeriesConsumer<S> consumer)
+            throws IOException {
+        forEachSeries(cryptoPriceRepository.streamAllOrderedBySymbolAndTimestamp(), builders, consumer);
+    }
+
+    private static <S> void forEachSeries(Stream<Object[]> stream, Function<String, SeriesBuilder<S>> builders,
+                                          SeriesConsumer<S> consumer) throws IOException {
+        try (Stream<Object[]> rows = stream) {
+            SeriesBuilder<S> builder = null;
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                String symbol = (String) row[0];
+                if (builder == null || !builder.getSymbol().equals(symbol)) {
+                    if (builder != null) {
+                        consumer.accept(builder.build());
+                    }
+                    builder = builders.apply(symbol);
+                }
+                builder.add((Long) row[1], (BigDecimal) row[2]);
+            }
+            if (builder != null) {
+                consumer.accept(builder.build());
+            }
+        }
+    }
+
+    /**
+     * Receives the series streamed by {@link #forEachSeries}.
+     */
+    @FunctionalInterface
+    public interface SeriesConsumer<S> {
+        void accept(S series) throws IOException;
+    }
+
+    /**
+     * Builds {@link PriceSeries} with double prices, the layout the scoring kernels operate on.
+     */
+    private static final class DoubleSeriesBuilder extends SeriesBuilder<PriceSeries> {
+        private double[] prices = new double[0];
+
+        private DoubleSeriesBuilder(String symbol) {
+            super(symbol);
+        }
+
+        @Override
+        protected void setPrice(int row, int capacity, BigDecimal price) {
+            if (prices.length < capacity) {
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            prices[row] = price.doubleValue();
+        }
+
+        @Override
+        protected PriceSeries build(String symbol, long[] timestamps, int size) {
+            return new PriceSeries(symbol, timestamps, Arrays.copyOf(prices, size));
+        }
+    }
+}
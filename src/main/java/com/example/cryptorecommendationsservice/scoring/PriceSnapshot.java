@@ -0,0 +1,58 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory copy of all price series, tagged with the data version it was loaded for.
+ */
+@Getter
+public class PriceSnapshot {
+
+    private final long version;
+    private final List<PriceSeries> series;
+    private final Map<String, PriceSeries> seriesBySymbol;
+
+    public PriceSnapshot(long version, List<PriceSeries> series) {
+        this.version = version;
+        this.series = Collections.unmodifiableList(series);
+        this.seriesBySymbol = series.stream()
+                .collect(Collectors.toUnmodifiableMap(PriceSeries::getSymbol, Function.identity()));
+    }
+
+    /**
+     * Returns a copy of this snapshot in which the series of the given symbols are replaced by the reloaded ones.
+     *
+     * @param version  the data version the reloaded series were read for.
+     * @param symbols  the symbols that were reloaded.
+     * @param reloaded their new series; a symbol without one no longer has prices and is left out.
+     * @return the new snapshot, with its series ordered by symbol like a full load.
+     */
+    public PriceSnapshot withSeries(long version, Set<String> symbols, List<PriceSeries> reloaded) {
+        List<PriceSeries> merged = new ArrayList<>(series.size() + reloaded.size());
+        for (PriceSeries priceSeries : series) {
+            if (!symbols.contains(priceSeries.getSymbol())) {
+                merged.add(priceSeries);
+            }
+        }
+        merged.addAll(reloaded);
+        merged.sort(Comparator.comparing(PriceSeries::getSymbol));
+        return new PriceSnapshot(version, merged);
+    }
+
+    public PriceSeries getSeries(String symbol) {
+        return seriesBySymbol.get(symbol);
+    }
+
+    public boolean isEmpty() {
+        return series.isEmpty();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps an in-memory {@link PriceSnapshot} of all price series, so reads between imports never touch the database.
+ * <p>
+ * The first access loads every series. After that, an import only marks its symbols as changed; the next access
+ * reloads just those series and swaps in a new snapshot. One caller at a time reloads, and callers arriving during a
+ * reload get the previous snapshot instead of waiting for it.
+ */
+@Service
+public class PriceSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceSnapshotService.class);
+
+    private final PriceSeriesLoader priceSeriesLoader;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final Set<String> changedSymbols = new HashSet<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile PriceSnapshot snapshot;
+
+    @Autowired
+    public PriceSnapshotService(PriceSeriesLoader priceSeriesLoader) {
+        this.priceSeriesLoader = priceSeriesLoader;
+    }
+
+    /**
+     * Returns the snapshot for the current data version, reloading the changed series if an import committed since
+     * the last load. While another caller is reloading, the previous snapshot is returned; only the very first load
+     * is waited for.
+     *
+     * @return the current price snapshot, or the previous one while it is being reloaded.
+     */
+    public PriceSnapshot getSnapshot() {
+        PriceSnapshot current = snapshot;
+        if (current != null && current.getVersion() == dataVersion.get()) {
+            return current;
+        }
+        if (current == null) {
+            reloadLock.lock();
+        } else if (!reloadLock.tryLock()) {
+            return current;
+        }
+        try {
+            return reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private PriceSnapshot reload() {
+        // Read the version before taking the changed symbols: an import committing mid-load stays marked as changed,
+        // so it leaves the snapshot stale, not wrong
+        long version = dataVersion.get();
+        PriceSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        Set<String> symbols;
+        synchronized (changedSymbols) {
+            symbols = new HashSet<>(changedSymbols);
+            changedSymbols.clear();
+        }
+
+        boolean full = current == null;
+        long start = System.nanoTime();
+        try {
+            current = full
+                    ? new PriceSnapshot(version, priceSeriesLoader.loadAll())
+                    : current.withSeries(version, symbols, priceSeriesLoader.load(symbols));
+        } catch (RuntimeException e) {
+            synchronized (changedSymbols) {
+                changedSymbols.addAll(symbols);
+            }
+            throw e;
+        }
+        snapshot = current;
+        logger.info("Loaded price snapshot version {} with {} series ({} reloaded) in {} ms", version,
+                current.getSeries().size(), full ? "all" : symbols.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return current;
+    }
+
+    /**
+     * Returns the version of the committed price data. It increases every time an import commits.
+     *
+     * @return the current data version.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    @Order(0) // Invalidate before listeners that read the new data
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCryptoDataImported(CryptoDataImportedEvent event) {
+        logger.debug("Price data changed for {}, invalidating snapshot", event.getSymbols());
+        synchronized (changedSymbols) {
+            changedSymbols.addAll(event.getSymbols());
+        }
+        dataVersion.incrementAndGet();
+    }
+}
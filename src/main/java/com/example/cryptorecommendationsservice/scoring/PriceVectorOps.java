@@ -0,0 +1,44 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+/**
+ * Primitive reductions over price arrays used by the scoring kernels. Implementations must agree on results
+ * up to floating point rounding; all methods operate on the first {@code length} elements of the array.
+ */
+public interface PriceVectorOps {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    double min(double[] values, int length);
+
+    double max(double[] values, int length);
+
+    double sum(double[] values, int length);
+
+    /**
+     * Sample variance of the simple returns {@code values[i + 1] / values[i] - 1}.
+     *
+     * @param values the price series.
+     * @param length the number of prices to consider.
+     * @return the variance, or 0 when fewer than three prices are given.
+     */
+    double returnsVariance(double[] values, int length);
+
+    /**
+     * Returns the Vector API implementation when the {@code jdk.incubator.vector} module has been added to the
+     * boot layer (for example with {@code --add-modules jdk.incubator.vector}), and the scalar one otherwise.
+     *
+     * @return the fastest implementation available on this JVM.
+     */
+    static PriceVectorOps best() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (PriceVectorOps) Class.forName(PriceVectorOps.class.getPackageName() + ".SimdPriceVectorOps")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar implementation
+            }
+        }
+        return new ScalarPriceVectorOps();
+    }
+}
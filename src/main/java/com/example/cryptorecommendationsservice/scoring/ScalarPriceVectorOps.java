@@ -0,0 +1,55 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+/**
+ * Plain loop implementation of {@link PriceVectorOps}, used when the Vector API is not available.
+ */
+public class ScalarPriceVectorOps implements PriceVectorOps {
+
+    @Override
+    public double min(double[] values, int length) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            result = Math.min(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] values, int length) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            result = Math.max(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double sum(double[] values, int length) {
+        double result = 0;
+        for (int i = 0; i < length; i++) {
+            result += values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public double returnsVariance(double[] values, int length) {
+        int count = length - 1;
+        if (count < 2) {
+            return 0;
+        }
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < count; i++) {
+            double r = values[i + 1] / values[i] - 1.0;
+            sum += r;
+            sumOfSquares += r * r;
+        }
+        return variance(sum, sumOfSquares, count);
+    }
+
+    static double variance(double sum, double sumOfSquares, int count) {
+        double mean = sum / count;
+        return Math.max(0, (sumOfSquares - count * mean * mean) / (count - 1));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+/**
+ * A metric computed over the price series of one crypto. Kernels are Spring beans and are looked up by
+ * {@link #getName()}, so adding a metric only requires adding a new component.
+ */
+public interface ScoringKernel {
+
+    /**
+     * @return the name clients use to select this metric.
+     */
+    String getName();
+
+    /**
+     * Computes the metric for one series.
+     *
+     * @param series the price series, never empty.
+     * @param ops    the vector operations to use for reductions.
+     * @return the metric value; higher values rank higher.
+     */
+    double score(PriceSeries series, PriceVectorOps ops);
+}
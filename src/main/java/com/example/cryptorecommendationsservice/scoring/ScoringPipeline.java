@@ -0,0 +1,162 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import com.example.cryptorecommendationsservice.dto.CryptoScoreDTO;
+import com.example.cryptorecommendationsservice.exception.BadRequestException;
+import com.example.cryptorecommendationsservice.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ranks cryptos by one or more weighted {@link ScoringKernel} metrics computed over the in-memory price snapshot.
+ */
+@Service
+public class ScoringPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringPipeline.class);
+
+    private final PriceSnapshotService priceSnapshotService;
+    private final PriceVectorOps priceVectorOps;
+    private final Map<String, ScoringKernel> kernels = new TreeMap<>();
+
+    @Autowired
+    public ScoringPipeline(PriceSnapshotService priceSnapshotService, PriceVectorOps priceVectorOps,
+                           List<ScoringKernel> kernels) {
+        this.priceSnapshotService = priceSnapshotService;
+        this.priceVectorOps = priceVectorOps;
+        kernels.forEach(kernel -> this.kernels.put(kernel.getName(), kernel));
+    }
+
+    /**
+     * Parses metric specifications of the form {@code name} or {@code name:weight}.
+     *
+     * @param specs the metric specifications.
+     * @return the weight of each requested metric, in request order.
+     * @throws BadRequestException if a metric is unknown or a weight is not a number.
+     */
+    public Map<String, Double> parseWeights(List<String> specs) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String spec : specs) {
+            String[] parts = spec.trim().split(":", 2);
+            String name = parts[0].trim();
+            if (!kernels.containsKey(name)) {
+                throw new BadRequestException("Unknown metric: " + name + ". Supported metrics: " + kernels.keySet());
+            }
+            try {
+                weights.put(name, parts.length == 2 ? Double.parseDouble(parts[1].trim()) : 1.0);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid weight for metric " + name + ": " + parts[1], e);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new BadRequestException("At least one metric is required. Supported metrics: " + kernels.keySet());
+        }
+        return weights;
+    }
+
+    /**
+     * Ranks cryptos by the raw value of a single metric.
+     *
+     * @param metric the metric name.
+     * @param limit  the maximum number of cryptos to return.
+     * @return the top cryptos, highest score first.
+     */
+    public List<CryptoScoreDTO> rankBy(String metric, int limit) {
+        ScoringKernel kernel = kernel(metric);
+        List<PriceSeries> series = series();
+        double[] scores = computeMetric(kernel, series);
+        return toScores(series, TopK.select(scores, symbols(series), checkLimit(limit)), scores,
+                Map.of(metric, scores));
+    }
+
+    /**
+     * Ranks cryptos by a weighted composite score. Every metric is min-max scaled to [0, 1] across all cryptos
+     * before weighting, so metrics with different units contribute comparably.
+     *
+     * @param weights the weight of each metric; negative weights favour low values.
+     * @param limit   the maximum number of cryptos to return.
+     * @return the top cryptos, highest composite score first.
+     */
+    public List<CryptoScoreDTO> rank(Map<String, Double> weights, int limit) {
+        List<PriceSeries> series = series();
+        double[] composite = new double[series.size()];
+        Map<String, double[]> metrics = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            double[] values = computeMetric(kernel(entry.getKey()), series);
+            metrics.put(entry.getKey(), values);
+
+            double min = priceVectorOps.min(values, values.length);
+            double range = priceVectorOps.max(values, values.length) - min;
+            double weight = entry.getValue();
+            for (int i = 0; i < values.length; i++) {
+                composite[i] += range == 0 ? 0 : weight * (values[i] - min) / range;
+            }
+        }
+        return toScores(series, TopK.select(composite, symbols(series), checkLimit(limit)), composite, metrics);
+    }
+
+    private List<PriceSeries> series() {
+        PriceSnapshot snapshot = priceSnapshotService.getSnapshot();
+        if (snapshot.isEmpty()) {
+            logger.error("No price data found for any crypto");
+            throw new ResourceNotFoundException("No crypto data found.");
+        }
+        return snapshot.getSeries();
+    }
+
+    private ScoringKernel kernel(String metric) {
+        ScoringKernel kernel = kernels.get(metric);
+        if (kernel == null) {
+            throw new IllegalArgumentException("Unknown metric: " + metric + ". Supported metrics: " + kernels.keySet());
+        }
+        return kernel;
+    }
+
+    private double[] computeMetric(ScoringKernel kernel, List<PriceSeries> series) {
+        double[] values = new double[series.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = kernel.score(series.get(i), priceVectorOps);
+        }
+        return values;
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be positive: " + limit);
+        }
+        return limit;
+    }
+
+    private static String[] symbols(List<PriceSeries> series) {
+        String[] symbols = new String[series.size()];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = series.get(i).getSymbol();
+        }
+        return symbols;
+    }
+
+    private static List<CryptoScoreDTO> toScores(List<PriceSeries> series, int[] indices, double[] scores,
+                                                 Map<String, double[]> metrics) {
+        List<CryptoScoreDTO> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            Map<String, BigDecimal> metricValues = new LinkedHashMap<>();
+            metrics.forEach((name, values) -> metricValues.put(name, toDecimal(values[index])));
+            result.add(new CryptoScoreDTO(series.get(index).getSymbol(), toDecimal(scores[index]), metricValues));
+        }
+        return result;
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(8, RoundingMode.HALF_UP) : null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Collects the rows of one symbol, in timestamp order, into a growable timestamp array and a price column whose
+ * representation the subclass chooses, without an object per row.
+ *
+ * @param <S> the type of series built.
+ */
+public abstract class SeriesBuilder<S> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final String symbol;
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int size;
+
+    protected SeriesBuilder(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public final void add(long timestamp, BigDecimal price) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size + (size >> 1));
+        }
+        timestamps[size] = timestamp;
+        setPrice(size, timestamps.length, price);
+        size++;
+    }
+
+    public final S build() {
+        return build(symbol, Arrays.copyOf(timestamps, size), size);
+    }
+
+    /**
+     * Stores the price of a row, first growing the price column to {@code capacity} rows if it is smaller.
+     */
+    protected abstract void setPrice(int row, int capacity, BigDecimal price);
+
+    /**
+     * Creates the series from the collected timestamps and the first {@code size} prices.
+     */
+    protected abstract S build(String symbol, long[] timestamps, int size);
+}
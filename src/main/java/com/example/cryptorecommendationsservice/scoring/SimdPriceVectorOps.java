@@ -0,0 +1,87 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of {@link PriceVectorOps}. Only instantiated through {@link PriceVectorOps#best()}
+ * once the incubator module is known to be present, so this class never links on JVMs without it.
+ */
+class SimdPriceVectorOps implements PriceVectorOps {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double min(double[] values, int length) {
+        int upper = SPECIES.loopBound(length);
+        DoubleVector acc = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            acc = acc.min(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            result = Math.min(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] values, int length) {
+        int upper = SPECIES.loopBound(length);
+        DoubleVector acc = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            acc = acc.max(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            result = Math.max(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double sum(double[] values, int length) {
+        int upper = SPECIES.loopBound(length);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public double returnsVariance(double[] values, int length) {
+        int count = length - 1;
+        if (count < 2) {
+            return 0;
+        }
+        // Loading at i + 1 stays in bounds because i + SPECIES.length() <= count = length - 1
+        int upper = SPECIES.loopBound(count);
+        DoubleVector sumAcc = DoubleVector.zero(SPECIES);
+        DoubleVector sumOfSquaresAcc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector previous = DoubleVector.fromArray(SPECIES, values, i);
+            DoubleVector next = DoubleVector.fromArray(SPECIES, values, i + 1);
+            DoubleVector r = next.div(previous).sub(1.0);
+            sumAcc = sumAcc.add(r);
+            sumOfSquaresAcc = r.fma(r, sumOfSquaresAcc);
+        }
+        double sum = sumAcc.reduceLanes(VectorOperators.ADD);
+        double sumOfSquares = sumOfSquaresAcc.reduceLanes(VectorOperators.ADD);
+        for (; i < count; i++) {
+            double r = values[i + 1] / values[i] - 1.0;
+            sum += r;
+            sumOfSquares += r * r;
+        }
+        return ScalarPriceVectorOps.variance(sum, sumOfSquares, count);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Volume of ticks: the number of recorded prices.
+ */
+@Component
+public class TickVolumeKernel implements ScoringKernel {
+
+    public static final String NAME = "tickVolume";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double score(PriceSeries series, PriceVectorOps ops) {
+        return series.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+/**
+ * Selects the indices of the k highest scores with a bounded binary heap over primitive indices, which is
+ * O(n log k) instead of the O(n log n) of a full sort. Ties are broken by key in ascending order so rankings
+ * are deterministic.
+ */
+final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * @param scores the scores; NaN is ranked below every other value.
+     * @param keys   tie-breaking keys, one per score.
+     * @param k      the maximum number of indices to return.
+     * @return indices of the best scores, best first.
+     */
+    static int[] select(double[] scores, String[] keys, int k) {
+        int size = Math.min(k, scores.length);
+        int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (heapSize < size) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, scores, keys);
+            } else if (size > 0 && better(i, heap[0], scores, keys)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, scores, keys);
+            }
+        }
+        // Popping the worst element repeatedly fills the result from the back
+        int[] result = new int[heapSize];
+        for (int last = heapSize - 1; last >= 0; last--) {
+            result[last] = heap[0];
+            heap[0] = heap[last];
+            siftDown(heap, last, scores, keys);
+        }
+        return result;
+    }
+
+    private static boolean better(int a, int b, double[] scores, String[] keys) {
+        double scoreA = Double.isNaN(scores[a]) ? Double.NEGATIVE_INFINITY : scores[a];
+        double scoreB = Double.isNaN(scores[b]) ? Double.NEGATIVE_INFINITY : scores[b];
+        if (scoreA != scoreB) {
+            return scoreA > scoreB;
+        }
+        return keys[a].compareTo(keys[b]) < 0;
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores, String[] keys) {
+        int element = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], element, scores, keys)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, double[] scores, String[] keys) {
+        if (heapSize == 0) {
+            return;
+        }
+        int element = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && better(heap[child], heap[child + 1], scores, keys)) {
+                child++;
+            }
+            if (!better(element, heap[child], scores, keys)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = element;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Volatility: standard deviation of the tick-to-tick simple returns.
+ */
+@Component
+public class VolatilityKernel implements ScoringKernel {
+
+    public static final String NAME = "volatility";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double score(PriceSeries series, PriceVectorOps ops) {
+        return Math.sqrt(ops.returnsVariance(series.getPrices(), series.size()));
+    }
+}
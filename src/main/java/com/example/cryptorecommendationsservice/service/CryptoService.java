@@ -1,11 +1,17 @@
 package com.example.cryptorecommendationsservice.service;
 
 import com.example.cryptorecommendationsservice.dto.CryptoNormalizedRangeDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoQuantilesDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoScoreDTO;
 import com.example.cryptorecommendationsservice.dto.CryptoStatsSimpleDTO;
+import com.example.cryptorecommendationsservice.exception.BadRequestException;
 import com.example.cryptorecommendationsservice.exception.ResourceNotFoundException;
 import com.example.cryptorecommendationsservice.model.Crypto;
 import com.example.cryptorecommendationsservice.repository.CryptoPriceRepository;
 import com.example.cryptorecommendationsservice.repository.CryptoRepository;
+import com.example.cryptorecommendationsservice.scoring.PriceSnapshotService;
+import com.example.cryptorecommendationsservice.scoring.ScoringPipeline;
+import com.example.cryptorecommendationsservice.sketch.QuantileSketch;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -20,7 +26,9 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,11 +38,21 @@ public class CryptoService {
 
     private final CryptoRepository cryptoRepository;
     private final CryptoPriceRepository cryptoPriceRepository;
+    private final ScoringPipeline scoringPipeline;
+    private final PriceSketchService priceSketchService;
+    private final SingleFlight singleFlight;
+    private final PriceSnapshotService priceSnapshotService;
 
     @Autowired
-    public CryptoService(CryptoRepository cryptoRepository, CryptoPriceRepository cryptoPriceRepository) {
+    public CryptoService(CryptoRepository cryptoRepository, CryptoPriceRepository cryptoPriceRepository,
+                         ScoringPipeline scoringPipeline, PriceSketchService priceSketchService,
+                         SingleFlight singleFlight, PriceSnapshotService priceSnapshotService) {
         this.cryptoRepository = cryptoRepository;
         this.cryptoPriceRepository = cryptoPriceRepository;
+        this.scoringPipeline = scoringPipeline;
+        this.priceSketchService = priceSketchService;
+        this.singleFlight = singleFlight;
+        this.priceSnapshotService = priceSnapshotService;
     }
 
     /**
@@ -62,13 +80,19 @@ public class CryptoService {
     }
 
     /**
-     * Fetches the oldest, newest, minimum, and maximum prices for a specific crypto symbol.
+     * Fetches the oldest, newest, minimum, and maximum prices for a specific crypto symbol. Concurrent calls for the
+     * same symbol and data version share one query, so a call made after an import never gets pre-import stats.
      *
      * @param symbol The crypto symbol.
      * @return CryptoStatsSimpleDTO containing stats for the specified symbol.
      */
     @Operation(summary = "Get stats for a specific crypto symbol")
     public CryptoStatsSimpleDTO getCryptoStats(String symbol) {
+        return singleFlight.execute(List.of("getCryptoStats", symbol, priceSnapshotService.getDataVersion()),
+                () -> fetchCryptoStats(symbol));
+    }
+
+    private CryptoStatsSimpleDTO fetchCryptoStats(String symbol) {
         logger.info("Fetching stats for crypto {}", symbol);
 
         // Fetching the result which is expected to be an Object[] containing one element: an array of stats
@@ -105,34 +129,42 @@ public class CryptoService {
         }
     }
 
-    public List<CryptoNormalizedRangeDTO> getAllCryptoStats() {
-        logger.info("Fetching normalizedRange for all cryptos");
-
-        List<Object[]> results = cryptoPriceRepository.findNormalizedAllStats();
-
-        if (results.isEmpty()) {
-            logger.error("No price data found for any crypto");
-            throw new ResourceNotFoundException("No crypto data found.");
-        }
-
-        // Map each result row to a CryptoNormalizedRange
-        return results.stream()
-                .map(this::mapToCryptoNormalizedRange)  // Correct method reference
-                .sorted(Comparator.comparing(CryptoNormalizedRangeDTO::getNormalizedRange).reversed()) // Sort by normalized range in descending order
-                .collect(Collectors.toList());
-    }
-
     /**
-     * Maps an Object[] array from the query result to a CryptoNormalizedRange instance.
+     * Estimates price quantiles of a crypto over a range of days by merging its daily quantile sketches.
      *
-     * @param result Object array containing symbol and normalized range.
-     * @return a CryptoNormalizedRange instance.
+     * @param symbol    The crypto symbol.
+     * @param quantiles The quantiles to estimate, each between 0 and 1.
+     * @param from      The first day, inclusive, or null for no lower bound.
+     * @param to        The last day, inclusive, or null for no upper bound.
+     * @return CryptoQuantilesDTO with the estimated price per quantile.
      */
-    private CryptoNormalizedRangeDTO mapToCryptoNormalizedRange(Object[] result) {
-        String symbol = (String) result[0];
-        BigDecimal normalizedRange = (BigDecimal) result[1];
+    @Operation(summary = "Estimate price quantiles for a specific crypto symbol")
+    public CryptoQuantilesDTO getCryptoQuantiles(String symbol, List<Double> quantiles, LocalDate from, LocalDate to) {
+        logger.info("Estimating quantiles {} for crypto {} from {} to {}", quantiles, symbol, from, to);
+
+        for (Double q : quantiles) {
+            if (q == null || !(q >= 0 && q <= 1)) {
+                throw new BadRequestException("Quantiles must be between 0 and 1: " + q);
+            }
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+
+        Crypto crypto = cryptoRepository.findBySymbol(symbol)
+                .orElseThrow(() -> new ResourceNotFoundException("No price data found for crypto: " + symbol));
+        QuantileSketch sketch = priceSketchService.mergeDailySketches(crypto.getId(),
+                from != null ? from : LocalDate.EPOCH, to != null ? to : LocalDate.of(9999, 12, 31));
+        if (sketch.getCount() == 0) {
+            logger.error("No price data found for crypto {} from {} to {}", symbol, from, to);
+            throw new ResourceNotFoundException("No price data found for crypto " + symbol + " in the given range.");
+        }
 
-        return new CryptoNormalizedRangeDTO(symbol, normalizedRange);
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (double q : quantiles) {
+            values.put(String.valueOf(q), BigDecimal.valueOf(sketch.quantile(q)).setScale(8, RoundingMode.HALF_UP));
+        }
+        return new CryptoQuantilesDTO(symbol, from, to, sketch.getCount(), sketch.getRelativeAccuracy(), values);
     }
 
     /**
@@ -148,34 +180,46 @@ public class CryptoService {
     public List<CryptoNormalizedRangeDTO> getCryptosSortedByNormalizedRange() {
         logger.info("Calculating normalized range for all cryptos");
 
-        List<CryptoNormalizedRangeDTO> statsList = getAllCryptoStats();
-
-        // Check if the list is empty and throw exception for 404 response
-        if (statsList.isEmpty()) {
-            logger.error("No crypto data found for normalized range.");
-            throw new ResourceNotFoundException("No crypto data found for normalized range.");
+        // Computed in SQL on the stored decimals rather than from the snapshot's doubles, so the values stay exact
+        List<Object[]> results = cryptoPriceRepository.findNormalizedAllStats();
+        if (results.isEmpty()) {
+            logger.error("No price data found for any crypto");
+            throw new ResourceNotFoundException("No crypto data found.");
         }
 
-        return statsList.stream()
-                .map(stats -> {
-                    BigDecimal normalizedRange = stats.getNormalizedRange();
-                    String symbol = stats.getSymbol();
-
-                    logger.debug("Normalized range for {}: {}", symbol, normalizedRange);
-                    return new CryptoNormalizedRangeDTO(symbol, normalizedRange);
-                })
+        return results.stream()
+                .map(result -> new CryptoNormalizedRangeDTO((String) result[0], (BigDecimal) result[1]))
                 .sorted(Comparator.comparing(CryptoNormalizedRangeDTO::getNormalizedRange).reversed())
                 .collect(Collectors.toList());
     }
 
     /**
-     * Fetches the crypto with the highest normalized range for a specific date.
+     * Ranks cryptos by a weighted combination of scoring metrics.
+     *
+     * @param metrics metric specifications of the form {@code name} or {@code name:weight}.
+     * @param limit   the maximum number of cryptos to return.
+     * @return List of CryptoScoreDTO, highest composite score first.
+     */
+    @Operation(summary = "Rank cryptos by a weighted composite of scoring metrics")
+    public List<CryptoScoreDTO> getRecommendations(List<String> metrics, int limit) {
+        logger.info("Ranking cryptos by {} (limit {})", metrics, limit);
+        return scoringPipeline.rank(scoringPipeline.parseWeights(metrics), limit);
+    }
+
+    /**
+     * Fetches the crypto with the highest normalized range for a specific date. Concurrent calls for the same date
+     * and data version share one query.
      *
      * @param date The date for which to calculate the highest normalized range.
      * @return CryptoNormalizedRange for the crypto with the highest normalized range on the specified date.
      */
     @Operation(summary = "Get the crypto with the highest normalized range for a specific date")
     public CryptoNormalizedRangeDTO getHighestNormalizedRangeForDate(LocalDate date) {
+        return singleFlight.execute(List.of("getHighestNormalizedRangeForDate", date, priceSnapshotService.getDataVersion()),
+                () -> fetchHighestNormalizedRangeForDate(date));
+    }
+
+    private CryptoNormalizedRangeDTO fetchHighestNormalizedRangeForDate(LocalDate date) {
         logger.info("Fetching crypto with the highest normalized range for date: {}", date);
 
         // Calculate the start and end of the specified date in epoch milliseconds
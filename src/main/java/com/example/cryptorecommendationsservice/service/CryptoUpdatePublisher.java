@@ -0,0 +1,351 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.dto.CryptoStatsSimpleDTO;
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
+import com.example.cryptorecommendationsservice.exception.ResourceNotFoundException;
+import com.example.cryptorecommendationsservice.exception.SubscriptionLimitException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the normalized-range ranking and per-symbol stats changes to Server-Sent Events subscribers after an import
+ * commits.
+ * <p>
+ * Connections are held by the servlet container's async support, not by threads. Every subscriber has a bounded
+ * queue of pending events that a small dispatcher pool drains; each event is serialized once and the same bytes are
+ * queued for every subscriber. A subscriber whose queue is full when a new event arrives is too slow to keep up and
+ * is disconnected, so it can neither hold back the others nor buffer without limit.
+ * <p>
+ * A send blocks while the client's TCP buffer is full, and the emitter offers no way to interrupt it. A send that
+ * takes longer than the send timeout therefore drops its subscriber, and the dispatcher pool gets an extra thread
+ * until the stalled send returns, so stalled clients never take dispatcher threads away from the others. The updates
+ * themselves are computed on a separate publisher thread.
+ */
+@Service
+public class CryptoUpdatePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CryptoUpdatePublisher.class);
+
+    public static final String NORMALIZED_RANGE_EVENT = "normalized-range";
+    public static final String STATS_EVENT = "stats";
+
+    private final CryptoService cryptoService;
+    private final ObjectMapper objectMapper;
+    private final int queueSize;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+    private final int dispatchThreads;
+    private final long sendTimeoutNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, CryptoStatsSimpleDTO> lastStats = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ThreadPoolExecutor dispatcher;
+    private final ExecutorService updates;
+    private final ScheduledExecutorService heartbeat;
+    private int stalledSends;
+
+    @Autowired
+    public CryptoUpdatePublisher(CryptoService cryptoService, ObjectMapper objectMapper,
+                                 @Value("${crypto.subscriptions.queue-size:32}") int queueSize,
+                                 @Value("${crypto.subscriptions.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${crypto.subscriptions.dispatch-threads:2}") int dispatchThreads,
+                                 @Value("${crypto.subscriptions.timeout:30m}") Duration emitterTimeout,
+                                 @Value("${crypto.subscriptions.heartbeat-interval:30s}") Duration heartbeatInterval,
+                                 @Value("${crypto.subscriptions.send-timeout:10s}") Duration sendTimeout) {
+        this.cryptoService = cryptoService;
+        this.objectMapper = objectMapper;
+        this.queueSize = queueSize;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.dispatchThreads = dispatchThreads;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+
+        CustomizableThreadFactory dispatcherThreads = new CustomizableThreadFactory("sse-dispatch-");
+        dispatcherThreads.setDaemon(true);
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), dispatcherThreads);
+        CustomizableThreadFactory updateThreads = new CustomizableThreadFactory("sse-publish-");
+        updateThreads.setDaemon(true);
+        // One thread, so updates are published in commit order
+        this.updates = Executors.newSingleThreadExecutor(updateThreads);
+        CustomizableThreadFactory heartbeatThreads = new CustomizableThreadFactory("sse-heartbeat-");
+        heartbeatThreads.setDaemon(true);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(heartbeatThreads);
+        // Heartbeats detect closed connections, which otherwise only show up on the next update
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(() -> broadcast(SseEmitter.event().comment("heartbeat").build()),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(10, sendTimeout.toMillis() / 4);
+        heartbeat.scheduleAtFixedRate(this::dropStalledSubscribers, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a new subscriber and queues the current normalized-range ranking as its first event.
+     *
+     * @return the emitter to return from the controller.
+     * @throws SubscriptionLimitException if the maximum number of subscribers is reached.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new SubscriptionLimitException("Too many subscribers. Please try again later.");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = register(emitter);
+        try {
+            subscriber.offer(event(NORMALIZED_RANGE_EVENT, cryptoService.getCryptosSortedByNormalizedRange()));
+        } catch (ResourceNotFoundException e) {
+            logger.debug("No ranking to send to new subscriber yet");
+        }
+        return emitter;
+    }
+
+    /**
+     * Queues the updated ranking and the stats of the imported symbols that changed, once the import has committed.
+     * Runs after the snapshot and response caches have been invalidated for the same event.
+     *
+     * @param event the import event.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCryptoDataImported(CryptoDataImportedEvent event) {
+        if (subscribers.isEmpty()) {
+            // Nobody has seen these stats, so the next subscriber gets them as changed
+            lastStats.keySet().removeAll(event.getSymbols());
+            return;
+        }
+        updates.execute(() -> publishUpdates(event.getSymbols()));
+    }
+
+    private void publishUpdates(Set<String> symbols) {
+        try {
+            broadcast(event(NORMALIZED_RANGE_EVENT, cryptoService.getCryptosSortedByNormalizedRange()));
+
+            List<CryptoStatsSimpleDTO> changed = new ArrayList<>();
+            for (String symbol : new TreeSet<>(symbols)) {
+                CryptoStatsSimpleDTO stats = cryptoService.getCryptoStats(symbol);
+                if (!stats.equals(lastStats.put(symbol, stats))) {
+                    changed.add(stats);
+                }
+            }
+            if (!changed.isEmpty()) {
+                broadcast(event(STATS_EVENT, changed));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to publish updates for {}: {}", symbols, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queues an event for every subscriber.
+     *
+     * @param event the event, built once and shared by all subscribers.
+     */
+    void broadcast(Set<DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.dropIfStalled(now);
+        }
+    }
+
+    /**
+     * Adds a dispatcher thread for every send that stalled, so that {@code dispatchThreads} threads stay available
+     * for the other subscribers.
+     *
+     * @param delta +1 when a send stalls, -1 when a stalled send returns.
+     */
+    private synchronized void adjustForStalledSends(int delta) {
+        stalledSends += delta;
+        int size = dispatchThreads + stalledSends;
+        if (delta > 0) {
+            dispatcher.setMaximumPoolSize(size);
+            dispatcher.setCorePoolSize(size);
+        } else {
+            dispatcher.setCorePoolSize(size);
+            dispatcher.setMaximumPoolSize(size);
+        }
+    }
+
+    Subscriber register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return subscriber;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private Set<DataWithMediaType> event(String name, Object payload) {
+        try {
+            return SseEmitter.event()
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + name + " event", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        updates.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * A connected client with its queue of events waiting to be sent. At most one dispatcher thread drains a
+     * subscriber at a time, so its events are sent in order. The emitter is only used by the draining thread, which
+     * also completes it when the subscriber is dropped; a send blocked on a slow connection therefore never blocks the
+     * thread that queues events.
+     */
+    final class Subscriber implements Runnable {
+
+        // sendStarted holds the odd start time of the running send, or one of these even values
+        private static final long IDLE = 0;
+        private static final long STALLED = 2;
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+        private volatile boolean closed;
+        private boolean completed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // The client is not keeping up; disconnect it instead of buffering without limit
+                drop("Dropping slow subscriber with {} pending events");
+            }
+            schedule();
+        }
+
+        /**
+         * Drops the subscriber if its current send has been blocked for longer than the send timeout. The blocked
+         * dispatcher thread is replaced until the send returns.
+         *
+         * @param now the current {@link System#nanoTime()}.
+         */
+        void dropIfStalled(long now) {
+            long started = sendStarted.get();
+            if ((started & 1) == 1 && now - started > sendTimeoutNanos && sendStarted.compareAndSet(started, STALLED)) {
+                adjustForStalledSends(1);
+                drop("Dropping subscriber whose send is blocked, with {} pending events");
+                // Completes the emitter if the send returned before the subscriber was closed
+                schedule();
+            }
+        }
+
+        private void drop(String message) {
+            if (subscribers.remove(this)) {
+                closed = true;
+                dropped.incrementAndGet();
+                logger.info(message, queue.size());
+                queue.clear();
+            }
+        }
+
+        private void send(Set<DataWithMediaType> event) throws IOException {
+            long started = System.nanoTime() | 1;
+            sendStarted.set(started);
+            try {
+                emitter.send(event);
+            } finally {
+                if (!sendStarted.compareAndSet(started, IDLE)) {
+                    sendStarted.set(IDLE);
+                    adjustForStalledSends(-1);
+                }
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+                if (closed && !completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter was completed
+                subscribers.remove(this);
+                closed = true;
+                completed = true;
+                queue.clear();
+            } finally {
+                scheduled.set(false);
+            }
+            // Work may have arrived after the last check but before the flag was cleared
+            if (closed ? !completed : !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
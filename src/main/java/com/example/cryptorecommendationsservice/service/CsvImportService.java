@@ -1,13 +1,19 @@
 package com.example.cryptorecommendationsservice.service;
 
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
 import com.example.cryptorecommendationsservice.model.Crypto;
 import com.example.cryptorecommendationsservice.repository.CryptoPriceRepository;
+import com.example.cryptorecommendationsservice.repository.CryptoPriceRow;
 import com.example.cryptorecommendationsservice.repository.CryptoRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -15,6 +21,17 @@ import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Service for importing cryptocurrency data from CSV files.
@@ -26,50 +43,123 @@ public class CsvImportService {
 
     private final CryptoRepository cryptoRepository;
     private final CryptoPriceRepository cryptoPriceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor importTaskExecutor;
+    private final StripedLocks symbolLocks;
+    private final PriceSketchService priceSketchService;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+    private final int logSampleRate;
 
     @Autowired
-    public CsvImportService(CryptoRepository cryptoRepository, CryptoPriceRepository cryptoPriceRepository) {
+    public CsvImportService(CryptoRepository cryptoRepository, CryptoPriceRepository cryptoPriceRepository,
+                            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                            @Qualifier("importTaskExecutor") Executor importTaskExecutor, StripedLocks symbolLocks,
+                            PriceSketchService priceSketchService,
+                            @Value("${crypto.import.chunk-size:50000}") int chunkSize,
+                            @Value("${crypto.import.max-reported-rejections:100}") int maxReportedRejections,
+                            @Value("${crypto.import.log-sample-rate:1000}") int logSampleRate) {
         this.cryptoRepository = cryptoRepository;
         this.cryptoPriceRepository = cryptoPriceRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.importTaskExecutor = importTaskExecutor;
+        this.symbolLocks = symbolLocks;
+        this.priceSketchService = priceSketchService;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+        this.logSampleRate = Math.max(1, logSampleRate);
     }
 
     /**
      * Imports cryptocurrency data from the provided InputStream.
+     * <p>
+     * Rows are buffered per symbol in chunks of {@code crypto.import.chunk-size} rows. Each chunk is partitioned by
+     * symbol and the partitions are written in parallel on the import executor, each in its own transaction while
+     * holding the symbol's lock. Writes to the same symbol are therefore serialized in arrival order, across
+     * concurrent imports too, and the last write of a (symbol, timestamp) wins. A failed partition does not roll
+     * back partitions of other symbols.
+     * <p>
+     * The daily price quantile sketches of the touched days are rebuilt in the same transaction as each partition.
+     * <p>
+     * A {@link CryptoDataImportedEvent} is published for the symbols with at least one committed partition once the
+     * import ends, also when it fails part-way, so caches never keep serving data that was replaced before the failure.
+     * <p>
+     * Successful and rejected rows are only logged at DEBUG, one in {@code crypto.import.log-sample-rate}; the
+     * returned report carries the counts and the first {@code crypto.import.max-reported-rejections} rejected rows.
      *
      * @param inputStream The InputStream containing CSV data.
+     * @return The import report.
      * @throws RuntimeException if an error occurs while processing the CSV file.
      */
-    @Transactional
-    public void importCryptoData(InputStream inputStream) {
+    public CsvImportReport importCryptoData(InputStream inputStream) {
+        CsvImportReport report = new CsvImportReport();
+        long start = System.nanoTime();
+        long writeNanos = 0;
+        // Symbols are only added once a partition of theirs has committed
+        Map<String, Long> cryptoIds = new ConcurrentHashMap<>();
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, List<CryptoPriceRow>> pendingRows = new LinkedHashMap<>();
+            int pendingCount = 0;
+            long lineNumber = 0;
             String line;
             while ((line = reader.readLine()) != null) {
-                // Skip header line if present
-                if (line.trim().toLowerCase().startsWith("timestamp")) {
+                lineNumber++;
+                // Skip header line if present, and blank lines
+                if (line.isBlank() || line.trim().toLowerCase().startsWith("timestamp")) {
+                    report.setSkipped(report.getSkipped() + 1);
                     continue;
                 }
+                report.setRowsRead(report.getRowsRead() + 1);
 
-                // Call parseAndUpsertLine to process each CSV line
-                parseAndUpsertLine(line);
+                // Call parseAndBufferLine to process each CSV line
+                if (parseAndBufferLine(line, lineNumber, pendingRows, report) && ++pendingCount >= chunkSize) {
+                    long writeStart = System.nanoTime();
+                    upsertPendingRows(pendingRows, cryptoIds, report);
+                    writeNanos += System.nanoTime() - writeStart;
+                    pendingCount = 0;
+                }
             }
+            long writeStart = System.nanoTime();
+            upsertPendingRows(pendingRows, cryptoIds, report);
+            writeNanos += System.nanoTime() - writeStart;
+
+            long totalNanos = System.nanoTime() - start;
+            report.setWriteMillis(TimeUnit.NANOSECONDS.toMillis(writeNanos));
+            report.setParseMillis(TimeUnit.NANOSECONDS.toMillis(totalNanos - writeNanos));
+            report.setTotalMillis(TimeUnit.NANOSECONDS.toMillis(totalNanos));
+            logger.info("Imported CSV data: {} rows read, {} inserted, {} updated, {} skipped, {} rejected in {} ms",
+                    report.getRowsRead(), report.getInserted(), report.getUpdated(), report.getSkipped(),
+                    report.getRejected(), report.getTotalMillis());
+            return report;
         } catch (Exception e) {
             logger.error("Error processing CSV file: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to process CSV file", e);
+        } finally {
+            if (!cryptoIds.isEmpty()) {
+                eventPublisher.publishEvent(new CryptoDataImportedEvent(new HashSet<>(cryptoIds.keySet())));
+            }
         }
     }
 
     /**
-     * Parses a line from the CSV file and inserts or updates the corresponding cryptocurrency data.
+     * Parses a line from the CSV file and buffers the price for its symbol.
      *
-     * @param line The line from the CSV file.
+     * @param line        The line from the CSV file.
+     * @param lineNumber  The 1-based line number, for the report.
+     * @param pendingRows The rows waiting to be written, per symbol.
+     * @param report      The report to record a rejection in.
+     * @return true if the line was buffered, false if it was rejected.
      */
-    private void parseAndUpsertLine(String line) {
+    private boolean parseAndBufferLine(String line, long lineNumber, Map<String, List<CryptoPriceRow>> pendingRows,
+                                       CsvImportReport report) {
         String[] columns = line.split(",");
 
         // Validate column count
         if (columns.length < 3) {
-            logger.error("Line does not contain the required number of columns (3): {}", line);
-            return; // Skip this line
+            reject(report, lineNumber, line, "Line does not contain the required number of columns (3)");
+            return false; // Skip this line
         }
 
         try {
@@ -77,19 +167,103 @@ public class CsvImportService {
             String symbol = parseString(columns[1].trim());
             BigDecimal price = parseBigDecimal(columns[2].trim());
 
-            // Find or create the Crypto entity
-            Crypto crypto = cryptoRepository.findBySymbol(symbol)
-                    .orElseGet(() -> createNewCrypto(symbol));
-
-            // Upsert the price for the given crypto
-            cryptoPriceRepository.upsertCryptoPrice(timestamp, price, symbol);
-            logger.info("Upserted price for crypto symbol {} at timestamp {} with price {}", symbol, timestamp, price);
+            pendingRows.computeIfAbsent(symbol, key -> new ArrayList<>()).add(new CryptoPriceRow(timestamp, price));
+            return true;
 
         } catch (IllegalArgumentException e) {
-            logger.error("Error parsing line: {}. Skipping this line. Error: {}", line, e.getMessage());
+            reject(report, lineNumber, line, e.getMessage());
         } catch (Exception e) {
-            logger.error("Unexpected error while processing line: {}. Skipping this line. Error: {}", line, e.getMessage(), e);
+            reject(report, lineNumber, line, "Unexpected error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Counts a rejected line, keeps it in the report while there is room and logs a sample of rejections at DEBUG.
+     */
+    private void reject(CsvImportReport report, long lineNumber, String line, String reason) {
+        long rejected = report.getRejected();
+        report.setRejected(rejected + 1);
+        if (report.getRejectedRows().size() < maxReportedRejections) {
+            String reportedLine = line.length() > 200 ? line.substring(0, 200) + "..." : line;
+            report.getRejectedRows().add(new CsvImportReport.RejectedRow(lineNumber, reason, reportedLine));
+        } else {
+            report.setRejectedRowsTruncated(true);
+        }
+        if (rejected % logSampleRate == 0) {
+            logger.debug("Rejected line {} ({} rejected so far): {}. Reason: {}", lineNumber, rejected + 1, line, reason);
+        }
+    }
+
+    /**
+     * Writes the buffered rows, one parallel partition per symbol, waits for all partitions and clears the buffer.
+     *
+     * @param pendingRows The rows waiting to be written, per symbol.
+     * @param cryptoIds   Ids of the symbols already resolved during this import.
+     * @param report      The report to add the inserted and updated counts to.
+     */
+    private void upsertPendingRows(Map<String, List<CryptoPriceRow>> pendingRows, Map<String, Long> cryptoIds,
+                                   CsvImportReport report) {
+        List<CompletableFuture<Long>> partitions = new ArrayList<>();
+        long written = 0;
+        for (Map.Entry<String, List<CryptoPriceRow>> entry : pendingRows.entrySet()) {
+            partitions.add(CompletableFuture.supplyAsync(
+                    () -> upsertSymbolRows(entry.getKey(), entry.getValue(), cryptoIds), importTaskExecutor));
+            written += entry.getValue().size();
+        }
+        pendingRows.clear();
+        try {
+            CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        long inserted = partitions.stream().mapToLong(CompletableFuture::join).sum();
+        report.setInserted(report.getInserted() + inserted);
+        report.setUpdated(report.getUpdated() + written - inserted);
+    }
+
+    /**
+     * Writes the rows of one symbol in a single transaction while holding the symbol's lock.
+     * <p>
+     * Inserted rows are counted from the update counts of the write batches; every other row, including repeated
+     * timestamps within the file, updated an existing row.
+     *
+     * @param symbol    The symbol of the cryptocurrency.
+     * @param rows      The rows to write, in file order.
+     * @param cryptoIds Ids of the symbols already resolved during this import.
+     * @return The number of rows inserted.
+     */
+    private long upsertSymbolRows(String symbol, List<CryptoPriceRow> rows, Map<String, Long> cryptoIds) {
+        long[] inserted = new long[1];
+        Lock lock = symbolLocks.get(symbol);
+        lock.lock();
+        try {
+            long cryptoId = transactionTemplate.execute(status -> {
+                // Find or create the Crypto entity once per symbol and import; the lock prevents duplicate creation
+                Long id = cryptoIds.get(symbol);
+                if (id == null) {
+                    id = cryptoRepository.findBySymbol(symbol)
+                            .orElseGet(() -> createNewCrypto(symbol))
+                            .getId();
+                }
+
+                // Upsert the prices for the given crypto and refresh the quantile sketches of the touched days
+                inserted[0] = cryptoPriceRepository.upsertCryptoPrices(id, rows);
+                priceSketchService.rebuildDailySketches(id, rows);
+                return id;
+            });
+            cryptoIds.put(symbol, cryptoId);
+        } finally {
+            lock.unlock();
+        }
+        if (logger.isDebugEnabled()) {
+            for (int i = 0; i < rows.size(); i += logSampleRate) {
+                CryptoPriceRow row = rows.get(i);
+                logger.debug("Upserted price for crypto symbol {} at timestamp {} with price {} (1 of {} rows logged)",
+                        symbol, row.getTimestamp(), row.getPrice(), logSampleRate);
+            }
         }
+        return inserted[0];
     }
 
     /**
@@ -0,0 +1,126 @@
+package com.example.cryptorecommendationsservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the progress of the background startup data load. Read endpoints and the readiness probe use it to
+ * tell whether the service has its initial data yet.
+ */
+@Component
+public class DataLoadState {
+
+    public enum Status {
+        PENDING, LOADING, READY, FAILED
+    }
+
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile Status status = Status.PENDING;
+    private final AtomicInteger loadedFiles = new AtomicInteger();
+    private final AtomicInteger failedFiles = new AtomicInteger();
+    private final Set<String> currentFiles = ConcurrentHashMap.newKeySet();
+    private volatile int totalFiles;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public boolean isReady() {
+        return status == Status.READY;
+    }
+
+    /**
+     * @return true once the load has ended, successfully or not.
+     */
+    public boolean isFinished() {
+        return status == Status.READY || status == Status.FAILED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    void started(int totalFiles) {
+        this.totalFiles = totalFiles;
+        this.startedAt = Instant.now();
+        this.status = Status.LOADING;
+    }
+
+    void loading(String file) {
+        currentFiles.add(file);
+    }
+
+    void fileLoaded(String file) {
+        currentFiles.remove(file);
+        loadedFiles.incrementAndGet();
+    }
+
+    void fileFailed(String file) {
+        currentFiles.remove(file);
+        failedFiles.incrementAndGet();
+    }
+
+    void ready() {
+        finish(Status.READY, null);
+    }
+
+    void failed(String error) {
+        finish(Status.FAILED, error);
+    }
+
+    private void finish(Status status, String error) {
+        this.currentFiles.clear();
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = status;
+        finished.countDown();
+    }
+
+    /**
+     * Blocks until the load has finished, successfully or not.
+     *
+     * @param timeout the maximum time to wait.
+     * @return true if the data is loaded, false if the load failed or the timeout elapsed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS) && isReady();
+    }
+
+    /**
+     * @return the current progress, suitable for Actuator health details.
+     */
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("status", status);
+        progress.put("totalFiles", totalFiles);
+        progress.put("loadedFiles", loadedFiles.get());
+        progress.put("failedFiles", failedFiles.get());
+        if (!currentFiles.isEmpty()) {
+            progress.put("currentFiles", List.copyOf(currentFiles));
+        }
+        if (startedAt != null) {
+            progress.put("startedAt", startedAt);
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            progress.put("elapsedMillis", Duration.between(startedAt, end).toMillis());
+        }
+        if (error != null) {
+            progress.put("error", error);
+        }
+        return progress;
+    }
+}
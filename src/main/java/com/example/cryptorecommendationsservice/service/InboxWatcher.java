@@ -0,0 +1,462 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.example.cryptorecommendationsservice.dto.InboxFileReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Imports CSV files dropped into the inbox directory {@code crypto.inbox.directory} while the service runs.
+ * <p>
+ * The directory is watched with a {@link WatchService} and rescanned every {@code crypto.inbox.poll-interval}, which
+ * also catches events the platform dropped. Every {@code *.csv} file is read incrementally: each pass imports the
+ * complete lines written since the last pass and records the byte offset reached in {@code .offsets.properties}, so
+ * files may keep growing and a restart resumes where the last import stopped. Rows imported again after a crash
+ * between an import and its offset update are harmless because imports upsert.
+ * <p>
+ * Once a file has not been modified for {@code crypto.inbox.settle-time} its last, possibly unterminated, line is
+ * imported and the file is moved atomically to {@code done/}.
+ * <p>
+ * A failed import leaves the file and its offset alone and is retried on a later pass, after a backoff that starts at
+ * {@code crypto.inbox.retry-backoff} and doubles with every failed attempt, because most failures (a database timeout,
+ * a lock held by another import) go away on their own. The file is moved to {@code failed/} when its content cannot be
+ * stored, or once {@code crypto.inbox.max-attempts} attempts in a row have failed. Up to {@code crypto.inbox.parallelism} files are imported concurrently; a single file is never imported by two
+ * threads at once.
+ * <p>
+ * Next to every file moved to {@code done/} or {@code failed/}, a {@code <name>.report.json} holds the import report
+ * of each byte range imported since the service started, including the rejected rows, and the error of a failed
+ * file.
+ */
+@Component
+public class InboxWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(InboxWatcher.class);
+
+    private static final String OFFSETS_FILE = ".offsets.properties";
+
+    private final CsvImportService csvImportService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final Path doneDirectory;
+    private final Path failedDirectory;
+    private final Duration settleTime;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final ExecutorService executor;
+    private final Properties offsets = new Properties();
+
+    // TRUE while a pass over the file is queued, FALSE while the last queued pass runs
+    private final ConcurrentHashMap<Path, Boolean> scheduled = new ConcurrentHashMap<>();
+
+    // Files whose last import failed, by file name
+    private final ConcurrentHashMap<String, FailedAttempts> failures = new ConcurrentHashMap<>();
+
+    // Reports of the imports of files still in the inbox, by file name
+    private final ConcurrentHashMap<String, InboxFileReport> reports = new ConcurrentHashMap<>();
+
+    private volatile WatchService watchService;
+    private volatile boolean running;
+
+    @Autowired
+    public InboxWatcher(CsvImportService csvImportService,
+                        ObjectMapper objectMapper,
+                        @Value("${crypto.inbox.enabled:false}") boolean enabled,
+                        @Value("${crypto.inbox.directory:./inbox}") Path directory,
+                        @Value("${crypto.inbox.parallelism:2}") int parallelism,
+                        @Value("${crypto.inbox.settle-time:30s}") Duration settleTime,
+                        @Value("${crypto.inbox.poll-interval:5s}") Duration pollInterval,
+                        @Value("${crypto.inbox.max-attempts:5}") int maxAttempts,
+                        @Value("${crypto.inbox.retry-backoff:10s}") Duration retryBackoff) {
+        this.csvImportService = csvImportService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.doneDirectory = directory.resolve("done");
+        this.failedDirectory = directory.resolve("failed");
+        this.settleTime = settleTime;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "inbox-import-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts watching the inbox directory after application startup.
+     *
+     * @throws IOException if the directories or the offsets file cannot be accessed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        initialize();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        running = true;
+
+        Thread watcher = new Thread(this::watch, "inbox-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching inbox directory {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * Creates the inbox, done and failed directories and loads the persisted offsets.
+     */
+    void initialize() throws IOException {
+        Files.createDirectories(doneDirectory);
+        Files.createDirectories(failedDirectory);
+        Path offsetsFile = directory.resolve(OFFSETS_FILE);
+        if (Files.exists(offsetsFile)) {
+            synchronized (offsets) {
+                try (Reader reader = Files.newBufferedReader(offsetsFile, StandardCharsets.UTF_8)) {
+                    offsets.load(reader);
+                }
+            }
+        }
+    }
+
+    private void watch() {
+        long nextScan = System.nanoTime();
+        try {
+            while (running) {
+                if (System.nanoTime() - nextScan >= 0) {
+                    scan();
+                    nextScan = System.nanoTime() + pollInterval.toNanos();
+                }
+                WatchKey key = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        nextScan = System.nanoTime();
+                    } else {
+                        schedule(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        } catch (Exception e) {
+            logger.error("Inbox watcher stopped: {}", e.getMessage(), e);
+        }
+    }
+
+    private void scan() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                schedule(file);
+            }
+        }
+    }
+
+    /**
+     * Queues a pass over the file unless one is already queued. A file changing while its pass runs gets another pass.
+     */
+    private void schedule(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(".csv") || name.startsWith(".") || !Files.isRegularFile(file)) {
+            return;
+        }
+        if (scheduled.put(file, Boolean.TRUE) == null) {
+            executor.execute(() -> {
+                do {
+                    scheduled.put(file, Boolean.FALSE);
+                    process(file);
+                } while (!scheduled.remove(file, Boolean.FALSE));
+            });
+        }
+    }
+
+    /**
+     * Imports the new complete lines of a file, or all remaining bytes and moves it to {@code done/} once it has
+     * settled. Does nothing while the file waits for the backoff after a failed import.
+     *
+     * @param file the inbox file.
+     */
+    void process(Path file) {
+        String name = file.getFileName().toString();
+        if (!Files.isRegularFile(file)) {
+            failures.remove(name);
+            reports.remove(name);
+            return; // Moved away by an earlier pass
+        }
+        FailedAttempts failed = failures.get(name);
+        if (failed != null && System.nanoTime() - failed.retryAt < 0) {
+            return;
+        }
+        long end;
+        boolean settled;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = offsetOf(name);
+            if (size < offset) {
+                logger.warn("Inbox file {} shrank below its imported offset {}, reading it again", name, offset);
+                offset = 0;
+            }
+            settled = Files.getLastModifiedTime(file).toMillis() + settleTime.toMillis() <= System.currentTimeMillis();
+            end = settled ? size : completeLinesEnd(channel, offset, size);
+            if (end > offset) {
+                CsvImportReport report = csvImportService.importCryptoData(new RangeInputStream(channel, offset, end));
+                saveOffset(name, end);
+                reports.computeIfAbsent(name, this::newReport).getImports()
+                        .add(new InboxFileReport.RangeImport(offset, end, report));
+                logger.info("Imported bytes {} to {} of inbox file {}: {} rows, {} rejected",
+                        offset, end, name, report.getRowsRead(), report.getRejected());
+            }
+        } catch (Exception e) {
+            handleFailure(file, e);
+            return;
+        }
+        failures.remove(name);
+
+        // Bytes appended since the size was read keep the file in the inbox for another pass
+        try {
+            if (settled && Files.size(file) == end) {
+                moveTo(file, doneDirectory, "done", null);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to check inbox file {}: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Schedules another attempt after the backoff, or moves the file to {@code failed/} if its content is at fault
+     * or it has run out of attempts. The offset is kept until then, so the next attempt resumes where the last
+     * successful import stopped.
+     */
+    private void handleFailure(Path file, Exception e) {
+        String name = file.getFileName().toString();
+        int attempts = failures.getOrDefault(name, FailedAttempts.NONE).attempts + 1;
+        if (isContentError(e) || attempts >= maxAttempts) {
+            logger.error("Failed to import inbox file {} after {} attempts: {}", name, attempts, e.getMessage(), e);
+            failures.remove(name);
+            moveTo(file, failedDirectory, "failed", e.getMessage());
+            return;
+        }
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        failures.put(name, new FailedAttempts(attempts, System.nanoTime() + backoff.toNanos()));
+        logger.warn("Failed to import inbox file {} (attempt {} of {}), retrying in {}: {}",
+                name, attempts, maxAttempts, backoff, e.getMessage());
+    }
+
+    /**
+     * Tells whether an import failed because of the file's content, which fails the same way on every attempt,
+     * rather than because of the database or the file system.
+     */
+    private static boolean isContentError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof IllegalArgumentException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the end of the last complete line, scanning backwards from the end of the file.
+     *
+     * @return the position after the last newline at or after {@code offset}, or {@code offset} if there is none.
+     */
+    private long completeLinesEnd(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long blockEnd = size;
+        while (blockEnd > offset) {
+            long blockStart = Math.max(offset, blockEnd - buffer.capacity());
+            buffer.clear().limit((int) (blockEnd - blockStart));
+            while (buffer.hasRemaining() && channel.read(buffer, blockStart + buffer.position()) >= 0) {
+                // Fill the block
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return blockStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        return offset;
+    }
+
+    private void moveTo(Path file, Path targetDirectory, String status, String error) {
+        String name = file.getFileName().toString();
+        Path target;
+        try {
+            target = targetDirectory.resolve(name);
+            if (Files.exists(target)) {
+                target = targetDirectory.resolve(System.currentTimeMillis() + "-" + name);
+            }
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            removeOffset(name);
+            logger.info("Moved inbox file {} to {}", name, target);
+        } catch (IOException e) {
+            logger.error("Failed to move inbox file {} to {}: {}", name, targetDirectory, e.getMessage(), e);
+            return;
+        }
+        writeReport(name, target, status, error);
+    }
+
+    private InboxFileReport newReport(String name) {
+        InboxFileReport report = new InboxFileReport();
+        report.setFile(name);
+        return report;
+    }
+
+    /**
+     * Writes the collected report of a file next to where it was moved. The file has already been handled, so a
+     * report that cannot be written is only logged.
+     */
+    private void writeReport(String name, Path target, String status, String error) {
+        InboxFileReport report = reports.remove(name);
+        if (report == null) {
+            report = newReport(name);
+        }
+        report.setStatus(status);
+        report.setError(error);
+        Path reportFile = target.resolveSibling(target.getFileName() + ".report.json");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        } catch (IOException e) {
+            logger.error("Failed to write report of inbox file {} to {}: {}", name, reportFile, e.getMessage(), e);
+        }
+    }
+
+    private long offsetOf(String name) {
+        synchronized (offsets) {
+            return Long.parseLong(offsets.getProperty(name, "0"));
+        }
+    }
+
+    private void saveOffset(String name, long offset) throws IOException {
+        synchronized (offsets) {
+            offsets.setProperty(name, Long.toString(offset));
+            storeOffsets();
+        }
+    }
+
+    private void removeOffset(String name) throws IOException {
+        synchronized (offsets) {
+            if (offsets.remove(name) != null) {
+                storeOffsets();
+            }
+        }
+    }
+
+    /**
+     * Writes the offsets to a temporary file and renames it over the offsets file, so a crash never leaves a
+     * partially written file behind.
+     */
+    private void storeOffsets() throws IOException {
+        Path temporary = directory.resolve(OFFSETS_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            offsets.store(writer, "Imported byte offsets of inbox files");
+        }
+        Files.move(temporary, directory.resolve(OFFSETS_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        running = false;
+        if (watchService != null) {
+            watchService.close();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Consecutive failed imports of a file and the earliest time, in {@link System#nanoTime()}, of the next attempt.
+     */
+    private static final class FailedAttempts {
+
+        private static final FailedAttempts NONE = new FailedAttempts(0, 0);
+
+        private final int attempts;
+        private final long retryAt;
+
+        private FailedAttempts(int attempts, long retryAt) {
+            this.attempts = attempts;
+            this.retryAt = retryAt;
+        }
+    }
+
+    /**
+     * Reads the byte range {@code [position, end)} of a file with positional reads.
+     */
+    private static final class RangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        private RangeInputStream(FileChannel channel, long position, long end) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.model.Crypto;
+import com.example.cryptorecommendationsservice.repository.CryptoPriceRepository;
+import com.example.cryptorecommendationsservice.repository.CryptoPriceRow;
+import com.example.cryptorecommendationsservice.repository.CryptoPriceSketchRepository;
+import com.example.cryptorecommendationsservice.repository.CryptoRepository;
+import com.example.cryptorecommendationsservice.sketch.QuantileSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-crypto, per-day price quantile sketches and merges them for queries.
+ * <p>
+ * Days are calendar days in the system default time zone, like the rest of the date based endpoints.
+ */
+@Service
+public class PriceSketchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceSketchService.class);
+
+    // Untouched days between two touched days that are still read in one query rather than two
+    private static final int MAX_READ_GAP_DAYS = 7;
+
+    // Days of sketches written per batch while backfilling
+    private static final int BACKFILL_BATCH_DAYS = 1000;
+
+    private final CryptoRepository cryptoRepository;
+    private final CryptoPriceRepository cryptoPriceRepository;
+    private final CryptoPriceSketchRepository cryptoPriceSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLocks symbolLocks;
+
+    @Autowired
+    public PriceSketchService(CryptoRepository cryptoRepository, CryptoPriceRepository cryptoPriceRepository,
+                              CryptoPriceSketchRepository cryptoPriceSketchRepository,
+                              TransactionTemplate transactionTemplate, StripedLocks symbolLocks) {
+        this.cryptoRepository = cryptoRepository;
+        this.cryptoPriceRepository = cryptoPriceRepository;
+        this.cryptoPriceSketchRepository = cryptoPriceSketchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.symbolLocks = symbolLocks;
+    }
+
+    /**
+     * Rebuilds the sketches of every day touched by the given rows from the stored prices of those days. Rebuilding
+     * rather than adding the rows to the existing sketches keeps the sketches exact when rows are re-imported or
+     * overwritten. Touched days more than a week apart are read separately, so a chunk spanning years only reads the
+     * days it touched. Must run in the transaction that wrote the rows, so the sketches commit together with the
+     * prices.
+     *
+     * @param cryptoId the id of the crypto the rows belong to.
+     * @param rows     the rows that were just written.
+     */
+    public void rebuildDailySketches(long cryptoId, List<CryptoPriceRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        TreeMap<LocalDate, QuantileSketch> sketches = new TreeMap<>();
+        for (CryptoPriceRow row : rows) {
+            sketches.computeIfAbsent(toDate(row.getTimestamp(), zone), day -> new QuantileSketch());
+        }
+
+        // One read per run of touched days, so rows far apart in time never pull in the prices of the days between them
+        LocalDate runStart = null;
+        LocalDate previous = null;
+        for (LocalDate day : sketches.keySet()) {
+            if (runStart != null && day.isAfter(previous.plusDays(MAX_READ_GAP_DAYS + 1))) {
+                addStoredPrices(cryptoId, runStart, previous, sketches, zone);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = day;
+            }
+            previous = day;
+        }
+        addStoredPrices(cryptoId, runStart, previous, sketches, zone);
+        cryptoPriceSketchRepository.upsertSketches(cryptoId, sketches);
+    }
+
+    /**
+     * Adds the stored prices of the touched days in {@code [firstDay, lastDay]} to their sketches.
+     */
+    private void addStoredPrices(long cryptoId, LocalDate firstDay, LocalDate lastDay,
+                                 Map<LocalDate, QuantileSketch> sketches, ZoneId zone) {
+        List<Object[]> prices = cryptoPriceRepository.findPricesInRange(cryptoId,
+                firstDay.atStartOfDay(zone).toInstant().toEpochMilli(),
+                lastDay.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+
+        // Zone offsets are whole quarter hours, so all timestamps of a quarter hour fall on the same day
+        Map<Long, LocalDate> dayCache = new HashMap<>();
+        for (Object[] price : prices) {
+            long timestamp = (Long) price[0];
+            LocalDate day = dayCache.computeIfAbsent(Math.floorDiv(timestamp, 900_000L), quarter -> toDate(timestamp, zone));
+            QuantileSketch sketch = sketches.get(day);
+            if (sketch != null) {
+                sketch.add(((BigDecimal) price[1]).doubleValue());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the sketches of every crypto whose sketches do not account for all of its stored prices, such as
+     * prices stored before the sketches existed. A crypto is checked by comparing its price count with the sum of
+     * its sketch counts, and rebuilt by streaming its prices once. Each crypto is handled in its own transaction
+     * while holding its symbol's lock, so concurrent imports of the crypto wait for it.
+     *
+     * @return the number of cryptos whose sketches were rebuilt.
+     */
+    public int backfillSketches() {
+        int rebuilt = 0;
+        for (Crypto crypto : cryptoRepository.findAll()) {
+            Lock lock = symbolLocks.get(crypto.getSymbol());
+            lock.lock();
+            try {
+                Boolean incomplete = transactionTemplate.execute(status -> rebuildIfIncomplete(crypto.getId()));
+                if (Boolean.TRUE.equals(incomplete)) {
+                    rebuilt++;
+                    logger.info("Rebuilt the daily price sketches of {}", crypto.getSymbol());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return rebuilt;
+    }
+
+    private boolean rebuildIfIncomplete(long cryptoId) {
+        long prices = cryptoPriceRepository.countInRange(cryptoId, Long.MIN_VALUE, Long.MAX_VALUE);
+        if (prices == cryptoPriceSketchRepository.sumPriceCounts(cryptoId)) {
+            return false;
+        }
+        cryptoPriceSketchRepository.deleteByCryptoId(cryptoId);
+
+        // Prices arrive in timestamp order, so days complete one after another
+        ZoneId zone = ZoneId.systemDefault();
+        Map<LocalDate, QuantileSketch> sketches = new TreeMap<>();
+        Map<Long, LocalDate> dayCache = new HashMap<>();
+        try (Stream<Object[]> rows = cryptoPriceRepository.streamPricesOrderedByTimestamp(cryptoId)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                long timestamp = (Long) row[0];
+                LocalDate day = dayCache.computeIfAbsent(Math.floorDiv(timestamp, 900_000L), quarter -> toDate(timestamp, zone));
+                if (!sketches.containsKey(day) && sketches.size() >= BACKFILL_BATCH_DAYS) {
+                    cryptoPriceSketchRepository.upsertSketches(cryptoId, sketches);
+                    sketches.clear();
+                    dayCache.clear();
+                }
+                sketches.computeIfAbsent(day, key -> new QuantileSketch()).add(((BigDecimal) row[1]).doubleValue());
+            }
+        }
+        cryptoPriceSketchRepository.upsertSketches(cryptoId, sketches);
+        return true;
+    }
+
+    /**
+     * Merges the daily sketches of a crypto between two dates, inclusive.
+     *
+     * @param cryptoId the id of the crypto.
+     * @param from     the first day.
+     * @param to       the last day.
+     * @return the merged sketch, empty if there are no prices in the range.
+     */
+    public QuantileSketch mergeDailySketches(long cryptoId, LocalDate from, LocalDate to) {
+        QuantileSketch merged = new QuantileSketch();
+        for (byte[] sketch : cryptoPriceSketchRepository.findSketches(cryptoId, from, to)) {
+            merged.merge(QuantileSketch.fromBytes(sketch));
+        }
+        return merged;
+    }
+
+    private static LocalDate toDate(long timestamp, ZoneId zone) {
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+    }
+}
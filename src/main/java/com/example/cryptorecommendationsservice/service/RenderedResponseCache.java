@@ -0,0 +1,173 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.scoring.PriceSnapshotService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds JSON responses that only change when new data is imported, rendered once per data version into byte
+ * arrays (plain and gzip) and written straight to the servlet output stream. The data version is the one of
+ * {@link PriceSnapshotService}, so a response is never stored under a version newer than the data it was rendered
+ * from. Renders go through {@link SingleFlight} keyed by cache key and version, so concurrent callers of one key
+ * share a single render while different keys render in parallel.
+ */
+@Component
+public class RenderedResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderedResponseCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final PriceSnapshotService priceSnapshotService;
+    private final SingleFlight singleFlight;
+    private final Map<String, RenderedResponse> responses = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RenderedResponseCache(ObjectMapper objectMapper, PriceSnapshotService priceSnapshotService,
+                                 SingleFlight singleFlight) {
+        this.objectMapper = objectMapper;
+        this.priceSnapshotService = priceSnapshotService;
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Returns the rendered response for the given key, rendering the body if the data changed since the last
+     * render. The version is read before the body is computed, so a body computed while an import commits is stored
+     * under the older version and rendered again on the next call. Callers arriving while the same key and version
+     * is being rendered wait for that render. Exceptions thrown by the body supplier propagate to all of them and
+     * nothing is cached.
+     *
+     * @param key  the cache key, typically one per endpoint.
+     * @param body supplies the response body to render.
+     * @return the rendered response for the current data version.
+     */
+    public RenderedResponse get(String key, Supplier<Object> body) {
+        long version = priceSnapshotService.getDataVersion();
+        RenderedResponse response = responses.get(key);
+        if (response != null && response.version == version) {
+            return response;
+        }
+        long renderVersion = version;
+        return singleFlight.execute(List.of("render", key, renderVersion), () -> renderAndStore(key, renderVersion, body));
+    }
+
+    private RenderedResponse renderAndStore(String key, long version, Supplier<Object> body) {
+        // A caller that waited for the previous render of this version may arrive after it was stored
+        RenderedResponse response = responses.get(key);
+        if (response != null && response.version == version) {
+            return response;
+        }
+        RenderedResponse rendered = render(version, body.get());
+        // A slower render of an older version must not replace a newer one
+        responses.merge(key, rendered, (stored, fresh) -> fresh.version >= stored.version ? fresh : stored);
+        logger.debug("Rendered {} for data version {} ({} bytes, {} gzipped)",
+                key, version, rendered.identity.length, rendered.gzip.length);
+        return rendered;
+    }
+
+    private RenderedResponse render(long version, Object body) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(identity.length / 2 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(identity);
+            }
+            return new RenderedResponse(version, identity, gzipped.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether an {@code Accept-Encoding} header allows gzip, honouring q-values: {@code gzip;q=0} refuses it,
+     * and {@code *} covers it unless gzip is listed on its own.
+     *
+     * @param acceptEncoding the header value, or null.
+     * @return true if the response may be gzip-encoded.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            boolean accepted = qualityOf(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * A JSON body pre-rendered for one data version.
+     */
+    public static final class RenderedResponse {
+        private final long version;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        private RenderedResponse(long version, byte[] identity, byte[] gzip) {
+            this.version = version;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        /**
+         * Writes the body, gzip-encoded if the client accepts it.
+         *
+         * @param request  the current request.
+         * @param response the response to write to.
+         * @throws IOException if writing fails.
+         */
+        public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            boolean useGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            byte[] body = useGzip ? gzip : identity;
+
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (useGzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.exception.ServiceTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent computations: while a computation for a key is in flight, further callers with the
+ * same key wait for its result instead of starting their own.
+ * <p>
+ * Nothing is cached. The key is removed before the result is published, so a caller that arrives after a computation
+ * finished always starts a fresh one. The first caller computes on its own thread; the others wait up to
+ * {@code crypto.single-flight.timeout} and receive the same result or the same exception.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final long timeoutNanos;
+
+    public SingleFlight(@Value("${crypto.single-flight.timeout:10s}") Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Runs the computation, or joins the one already in flight for the same key.
+     *
+     * @param key         identifies the computation, typically the method name and its arguments.
+     * @param computation the computation to run if none is in flight.
+     * @param <T>         the result type.
+     * @return the result of the computation.
+     * @throws ServiceTimeoutException if waiting for an in-flight computation timed out or was interrupted.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> computation) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return (T) await(key, existing);
+        }
+
+        try {
+            T result = computation.get();
+            inFlight.remove(key, future);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of calls that joined a computation already in flight.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private Object await(Object key, CompletableFuture<Object> future) {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new ServiceTimeoutException("Timed out waiting for in-flight request: " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceTimeoutException("Interrupted while waiting for in-flight request: " + key, e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.example.cryptorecommendationsservice.generator.SyntheticDataSet;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the initial CSV data in the background once the application is up, so the HTTP port opens immediately.
+ * Up to {@code crypto.startup-load.parallelism} files are imported concurrently. Progress is published through
+ * {@link DataLoadState}. Under the {@code scale-test} profile the synthetic dataset is generated first, on the same
+ * background thread. Before the load is reported ready, daily price sketches missing for prices stored by earlier
+ * runs are built, also when the file load is disabled.
+ */
+@Component
+public class StartupDataLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupDataLoader.class);
+
+    private final CsvImportService csvImportService;
+    private final DataLoadState dataLoadState;
+    private final PriceSketchService priceSketchService;
+    private final ObjectProvider<SyntheticDataSet> syntheticDataSet;
+    private final List<String> locations;
+    private final boolean enabled;
+    private final ExecutorService executor;
+
+    @Autowired
+    public StartupDataLoader(CsvImportService csvImportService, DataLoadState dataLoadState,
+                             PriceSketchService priceSketchService, ObjectProvider<SyntheticDataSet> syntheticDataSet,
+                             @Value("${crypto.startup-load.locations:classpath:csv/*.csv}") List<String> locations,
+                             @Value("${crypto.startup-load.enabled:true}") boolean enabled,
+                             @Value("${crypto.startup-load.parallelism:4}") int parallelism) {
+        this.csvImportService = csvImportService;
+        this.dataLoadState = dataLoadState;
+        this.priceSketchService = priceSketchService;
+        this.syntheticDataSet = syntheticDataSet;
+        this.locations = locations;
+        this.enabled = enabled;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism) + 1, runnable -> {
+            Thread thread = new Thread(runnable, "startup-data-loader-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts loading all CSV files matching the configured locations after application startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCsvFilesOnStartup() {
+        executor.execute(this::loadCsvFiles);
+    }
+
+    private void loadCsvFiles() {
+        try {
+            if (enabled) {
+                SyntheticDataSet dataSet = syntheticDataSet.getIfAvailable();
+                if (dataSet != null) {
+                    dataSet.generate();
+                }
+                List<Resource> resources = resolveResources();
+                dataLoadState.started(resources.size());
+                logger.info("Loading {} CSV files in the background", resources.size());
+
+                // The coordinating thread occupies one pool thread, leaving `parallelism` threads for files
+                CompletableFuture.allOf(resources.stream()
+                        .map(resource -> CompletableFuture.runAsync(() -> loadCsvFile(resource), executor))
+                        .toArray(CompletableFuture[]::new)).join();
+            } else {
+                logger.info("Startup data load is disabled");
+                dataLoadState.started(0);
+            }
+
+            int rebuilt = priceSketchService.backfillSketches();
+            if (rebuilt > 0) {
+                logger.info("Built missing daily price sketches for {} cryptos", rebuilt);
+            }
+            int failedFiles = dataLoadState.getFailedFiles();
+            if (failedFiles > 0) {
+                // The loaded files are served, but the data is incomplete, so readiness stays down
+                dataLoadState.failed(failedFiles + " CSV file(s) failed to load");
+                logger.error("Startup data load finished with failures: {}", dataLoadState.getProgress());
+            } else {
+                dataLoadState.ready();
+                logger.info("Startup data load finished: {}", dataLoadState.getProgress());
+            }
+        } catch (Exception e) {
+            logger.error("Startup data load failed: {}", e.getMessage(), e);
+            dataLoadState.failed(e.getMessage());
+        }
+    }
+
+    private void loadCsvFile(Resource resource) {
+        String filename = resource.getFilename();
+        dataLoadState.loading(filename);
+        try (InputStream inputStream = resource.getInputStream()) {
+            CsvImportReport report = csvImportService.importCryptoData(inputStream);
+            dataLoadState.fileLoaded(filename);
+            logger.info("Loaded CSV file: {} ({} rows, {} rejected)", filename, report.getRowsRead(), report.getRejected());
+        } catch (Exception e) {
+            dataLoadState.fileFailed(filename);
+            logger.error("Failed to load CSV file {}: {}", filename, e.getMessage(), e);
+        }
+    }
+
+    private List<Resource> resolveResources() throws Exception {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Resource> resources = new ArrayList<>();
+        for (String location : locations) {
+            resources.addAll(List.of(resolver.getResources(location.trim())));
+        }
+        return resources;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cryptorecommendationsservice.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of fair locks keyed by hash. Equal keys always map to the same lock, so work on one key is
+ * serialized in arrival order while different keys usually proceed in parallel.
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * @param stripes the minimum number of locks; rounded up to a power of two.
+     */
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+    }
+
+    public Lock get(Object key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.cryptorecommendationsservice.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Mergeable quantile sketch with relative error guarantees (DDSketch style).
+ * <p>
+ * Positive values are counted in logarithmic buckets whose bounds grow by a factor of
+ * {@code gamma = (1 + a) / (1 - a)}, so any quantile is answered within relative error {@code a} of a value at that
+ * rank. Two sketches with the same accuracy merge by adding bucket counts, which makes merged sketches exactly equal to
+ * a sketch built from the union of the values. At most {@link #MAX_BUCKETS} buckets are kept; beyond that the lowest
+ * buckets are collapsed, which only affects the accuracy of the lowest quantiles. Values that are zero or negative are
+ * counted as zero.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    static final int MAX_BUCKETS = 2048;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    // counts[i] holds bucket offset + i; buckets lo..hi are in use
+    private long[] counts = new long[0];
+    private int offset;
+    private int lo = 0;
+    private int hi = -1;
+
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value to add; NaN is ignored.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > 0) {
+            increment((int) Math.ceil(Math.log(value) / logGamma), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of another sketch to this one.
+     *
+     * @param other a sketch with the same relative accuracy.
+     * @throws IllegalArgumentException if the sketches have different accuracies.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative accuracy");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        for (int index = other.lo; index <= other.hi; index++) {
+            long bucketCount = other.counts[index - other.offset];
+            if (bucketCount > 0) {
+                increment(index, bucketCount);
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Estimates the value at quantile {@code q}.
+     *
+     * @param q the quantile, between 0 and 1.
+     * @return the estimated value, or NaN if the sketch is empty.
+     * @throws IllegalArgumentException if q is not between 0 and 1.
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        long rank = (long) (q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return Math.max(min, 0);
+        }
+        for (int index = lo; index <= hi; index++) {
+            seen += counts[index - offset];
+            if (rank < seen) {
+                // Midpoint of the bucket (gamma^(i-1), gamma^i], within relative accuracy of any value in it
+                double value = 2 * Math.exp(index * logGamma) / (gamma + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Serializes the sketch: accuracy, zero count, min and max followed by the non-empty buckets as delta-encoded
+     * varint indexes and varint counts.
+     *
+     * @return the serialized sketch.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + (hi - lo + 1) * 3);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeDouble(relativeAccuracy);
+            writeVarLong(out, zeroCount);
+            out.writeDouble(min);
+            out.writeDouble(max);
+
+            int nonEmpty = 0;
+            for (int index = lo; index <= hi; index++) {
+                if (counts[index - offset] > 0) {
+                    nonEmpty++;
+                }
+            }
+            writeVarLong(out, nonEmpty);
+            int previous = 0;
+            for (int index = lo; index <= hi; index++) {
+                long bucketCount = counts[index - offset];
+                if (bucketCount > 0) {
+                    writeVarLong(out, zigZag(index - previous));
+                    writeVarLong(out, bucketCount);
+                    previous = index;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes a sketch written by {@link #toBytes()}.
+     *
+     * @param data the serialized sketch.
+     * @return the sketch.
+     * @throws IllegalArgumentException if the data is not a serialized sketch.
+     */
+    public static QuantileSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported sketch format version: " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(in.readDouble());
+            sketch.zeroCount = readVarLong(in);
+            sketch.count = sketch.zeroCount;
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+
+            long buckets = readVarLong(in);
+            int index = 0;
+            for (long i = 0; i < buckets; i++) {
+                index += unZigZag(readVarLong(in));
+                long bucketCount = readVarLong(in);
+                sketch.increment(index, bucketCount);
+                sketch.count += bucketCount;
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid sketch data", e);
+        }
+    }
+
+    private void increment(int index, long n) {
+        if (lo > hi) {
+            ensureCapacity(index, index);
+            lo = index;
+            hi = index;
+        } else {
+            if (index < lo) {
+                // Below the kept range: count it in the lowest bucket that can still be kept
+                index = Math.max(index, hi - MAX_BUCKETS + 1);
+            } else if (index - lo >= MAX_BUCKETS) {
+                collapseBelow(index - MAX_BUCKETS + 1);
+            }
+            int newLo = Math.min(lo, index);
+            int newHi = Math.max(hi, index);
+            ensureCapacity(newLo, newHi);
+            lo = newLo;
+            hi = newHi;
+        }
+        counts[index - offset] += n;
+    }
+
+    /**
+     * Moves the counts of all buckets below {@code newLo} into bucket {@code newLo}.
+     */
+    private void collapseBelow(int newLo) {
+        long collapsed = 0;
+        for (int index = lo; index < newLo && index <= hi; index++) {
+            collapsed += counts[index - offset];
+            counts[index - offset] = 0;
+        }
+        int newHi = Math.max(hi, newLo);
+        ensureCapacity(newLo, newHi);
+        lo = newLo;
+        hi = newHi;
+        counts[newLo - offset] += collapsed;
+    }
+
+    /**
+     * Makes sure buckets {@code from..to} fit in the array, keeping the counts of the buckets in use.
+     */
+    private void ensureCapacity(int from, int to) {
+        if (from >= offset && to < offset + counts.length) {
+            return;
+        }
+        int needed = to - from + 1;
+        int length = Math.max(needed, Math.min(Math.max(counts.length * 2, 16), 2 * MAX_BUCKETS));
+        int newOffset = from - (length - needed) / 2;
+        long[] resized = new long[length];
+        for (int index = Math.max(lo, from); index <= Math.min(hi, to); index++) {
+            resized[index - newOffset] = counts[index - offset];
+        }
+        counts = resized;
+        offset = newOffset;
+    }
+
+    private static long zigZag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int unZigZag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{count=" + count + ", min=" + min + ", max=" + max
+                + ", buckets=" + Math.max(0, hi - lo + 1) + ", relativeAccuracy=" + relativeAccuracy + "}";
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.cryptorecommendationsservice;
 
+import com.example.cryptorecommendationsservice.service.DataLoadState;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @SpringBootTest
 class CryptoRecommendationsServiceApplicationTests {
 
+    @Autowired
+    private DataLoadState dataLoadState;
+
     @Test
-    void contextLoads() {
+    void contextLoads() throws InterruptedException {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(2)), "Startup data load did not complete");
     }
 
 }
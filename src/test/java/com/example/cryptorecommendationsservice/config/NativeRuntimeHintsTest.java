@@ -0,0 +1,46 @@
+package com.example.cryptorecommendationsservice.config;
+
+import com.example.cryptorecommendationsservice.dto.CryptoNormalizedRangeDTO;
+import com.example.cryptorecommendationsservice.dto.CryptoStatsSimpleDTO;
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.example.cryptorecommendationsservice.model.Crypto;
+import com.example.cryptorecommendationsservice.model.CryptoPrice;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the native image hints on the JVM, where a missing hint is cheap to find.
+ */
+public class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    public NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void testBundledCsvFilesAreIncluded() {
+        for (String symbol : new String[]{"BTC", "DOGE", "ETH", "LTC", "XRP"}) {
+            assertTrue(RuntimeHintsPredicates.resource().forResource("csv/" + symbol + "_values.csv").test(hints), symbol);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/resources/webjars/swagger-ui/index.html").test(hints));
+    }
+
+    @Test
+    public void testEntitiesAndSerializedTypesAreReflective() throws NoSuchMethodException {
+        for (Class<?> entity : new Class<?>[]{Crypto.class, CryptoPrice.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+                    .test(hints), entity.getSimpleName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CryptoNormalizedRangeDTO.class.getMethod("getNormalizedRange")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CryptoStatsSimpleDTO.class.getMethod("getNewestPrice")).test(hints));
+        // Nested types of serialized DTOs are registered too
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CsvImportReport.RejectedRow.class.getMethod("getReason")).test(hints));
+    }
+}
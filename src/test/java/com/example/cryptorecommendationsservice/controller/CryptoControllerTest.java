@@ -1,18 +1,34 @@
 package com.example.cryptorecommendationsservice.controller;
 
+import com.example.cryptorecommendationsservice.export.ColumnarPriceReader;
+import com.example.cryptorecommendationsservice.export.FixedPointPriceSeries;
 import com.example.cryptorecommendationsservice.repository.CryptoPriceRepository;
 import com.example.cryptorecommendationsservice.repository.CryptoRepository;
+import com.example.cryptorecommendationsservice.service.DataLoadState;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +45,14 @@ public class CryptoControllerTest {
     @Autowired
     private CryptoPriceRepository cryptoPriceRepository;
 
+    @Autowired
+    private DataLoadState dataLoadState;
+
+    @BeforeEach
+    public void awaitStartupDataLoad() throws InterruptedException {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(2)), "Startup data load did not complete");
+    }
+
     @Test
     @Operation(summary = "Get supported cryptocurrencies")
     @ApiResponses(value = {
@@ -95,4 +119,109 @@ public class CryptoControllerTest {
                 .andExpect(jsonPath("$[3].symbol", is("LTC")))
                 .andExpect(jsonPath("$[4].symbol", is("BTC")));
     }
+
+    @Test
+    @Operation(summary = "Get crypto recommendations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully ranked the cryptocurrencies"),
+            @ApiResponse(responseCode = "400", description = "Unknown metric requested")
+    })
+    public void testGetRecommendations() throws Exception {
+        mockMvc.perform(get("/api/crypto/recommendations?metrics=normalizedRange&limit=2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].symbol", is("ETH")))
+                .andExpect(jsonPath("$[1].symbol", is("XRP")));
+
+        mockMvc.perform(get("/api/crypto/recommendations?metrics=momentum:1,volatility:-0.5,tickVolume:0.1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].metrics.momentum").exists())
+                .andExpect(jsonPath("$[0].metrics.volatility").exists());
+
+        mockMvc.perform(get("/api/crypto/recommendations?metrics=unknown")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/crypto/recommendations?metrics=momentum:high")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid weight for metric momentum: high")));
+    }
+
+    @Test
+    public void testGetCryptoQuantiles() throws Exception {
+        mockMvc.perform(get("/api/crypto/BTC/quantiles?q=0,0.5,1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(100)))
+                .andExpect(jsonPath("$.quantiles['0.0']", is(33276.59)))
+                .andExpect(jsonPath("$.quantiles['0.5']", closeTo(41912.77, 41912.77 * 0.01)))
+                .andExpect(jsonPath("$.quantiles['1.0']", is(47722.66)));
+
+        mockMvc.perform(get("/api/crypto/BTC/quantiles?q=0.5&from=2022-01-01&to=2022-01-01")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(5)))
+                .andExpect(jsonPath("$.quantiles['0.5']", closeTo(46979.61, 46979.61 * 0.01)));
+    }
+
+    @Test
+    public void testExportPricesRoundTrip() throws Exception {
+        byte[] export = mockMvc.perform(get("/api/export/prices"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<FixedPointPriceSeries> series = ColumnarPriceReader.read(new ByteArrayInputStream(export));
+        assertEquals(List.of("BTC", "DOGE", "ETH", "LTC", "XRP"),
+                series.stream().map(FixedPointPriceSeries::getSymbol).collect(Collectors.toList()));
+        FixedPointPriceSeries btc = series.get(0);
+        assertEquals(100, btc.size());
+        assertEquals(1641009600000L, btc.getTimestamps()[0]);
+        assertEquals(new BigDecimal("46813.21000000"), btc.getPrice(0));
+    }
+
+    @Test
+    public void testProbesReportReadyAfterDataLoad() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("UP")))
+                .andExpect(jsonPath("$.components.dataLoad.details.loadedFiles", is(5)));
+
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("UP")));
+    }
+
+    @Test
+    public void testLoadSheddingEndpointReportsLimits() throws Exception {
+        mockMvc.perform(get("/actuator/loadshedding"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.concurrencyLimits.read.limit").isNumber())
+                .andExpect(jsonPath("$.concurrencyLimits.read.queueDepth", is(0)))
+                .andExpect(jsonPath("$.concurrencyLimits.import.limit").isNumber())
+                .andExpect(jsonPath("$.concurrencyLimits.export.limit").isNumber())
+                .andExpect(jsonPath("$.rateLimitRouteCosts['/api/import/**']", is(5)));
+    }
+
+    @Test
+    public void testGetNormalizedRangeGzipped() throws Exception {
+        String plain = mockMvc.perform(get("/api/crypto/normalized-range"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult gzipped = mockMvc.perform(get("/api/crypto/normalized-range")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertEquals(plain, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
 }
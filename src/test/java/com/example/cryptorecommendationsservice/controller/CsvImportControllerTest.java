@@ -0,0 +1,118 @@
+package com.example.cryptorecommendationsservice.controller;
+
+import com.example.cryptorecommendationsservice.service.DataLoadState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"crypto.rate-limit.enabled=false", "crypto.import.max-reported-rejections=2"})
+@AutoConfigureMockMvc
+public class CsvImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataLoadState dataLoadState;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void awaitStartupDataLoad() throws InterruptedException {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(2)), "Startup data load did not complete");
+    }
+
+    @Test
+    public void testImportReportsCountsAndRejectedRows() throws Exception {
+        // Rows 2-4 already exist, so they are updates and leave the data unchanged
+        String csv = String.join("\n",
+                "timestamp,symbol,price",
+                "1641009600000,BTC,46813.21",
+                "1641020400000,BTC,46979.61",
+                "1641031200000,BTC,47143.98",
+                "",
+                "1641009600000,BTC",
+                "1641009600000,BTC,abc",
+                "yesterday,BTC,1");
+
+        mockMvc.perform(multipart("/api/import/crypto").file(file(csv)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead", is(6)))
+                .andExpect(jsonPath("$.inserted", is(0)))
+                .andExpect(jsonPath("$.updated", is(3)))
+                .andExpect(jsonPath("$.skipped", is(2)))
+                .andExpect(jsonPath("$.rejected", is(3)))
+                .andExpect(jsonPath("$.rejectedRows[*].lineNumber", contains(6, 7)))
+                .andExpect(jsonPath("$.rejectedRows[1].reason", containsString("Invalid price format")))
+                .andExpect(jsonPath("$.rejectedRowsTruncated", is(true)))
+                .andExpect(jsonPath("$.totalMillis", greaterThanOrEqualTo(0)));
+    }
+
+    @Test
+    public void testImportCountsInsertedRows() throws Exception {
+        long timestamp = 4102444800000L; // 2100-01-01, far away from the sample data
+        try {
+            String csv = timestamp + ",BTC,1.5\n" + timestamp + ",BTC,2.5\n" + (timestamp + 1) + ",BTC,3.5\n";
+
+            mockMvc.perform(multipart("/api/import/crypto").file(file(csv)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.rowsRead", is(3)))
+                    .andExpect(jsonPath("$.inserted", is(2)))
+                    .andExpect(jsonPath("$.updated", is(1)))
+                    .andExpect(jsonPath("$.rejectedRows", empty()));
+        } finally {
+            // Leave the shared database as the other tests expect it
+            jdbcTemplate.update("DELETE FROM crypto_price WHERE timestamp >= ?", timestamp);
+            jdbcTemplate.update("DELETE FROM crypto_price_sketch WHERE price_date >= DATE '2099-12-31'");
+        }
+    }
+
+    @Test
+    public void testImportPushesUpdatesToSubscribers() throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/api/crypto/subscribe"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse events = subscription.getResponse();
+        awaitContent(events, "event:normalized-range");
+
+        mockMvc.perform(multipart("/api/import/crypto").file(file("1641009600000,BTC,46813.21\n")))
+                .andExpect(status().isOk());
+
+        awaitContent(events, "event:stats");
+        String content = events.getContentAsString();
+        assertTrue(content.contains("\"symbol\":\"BTC\",\"oldestPrice\":46813.21"), content);
+        assertEquals(2, content.split("event:normalized-range", -1).length - 1, content);
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, () -> "No " + expected + " event received");
+            Thread.sleep(10);
+        }
+    }
+
+    private static MockMultipartFile file(String csv) {
+        return new MockMultipartFile("file", "prices.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
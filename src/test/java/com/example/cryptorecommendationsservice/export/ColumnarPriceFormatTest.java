@@ -0,0 +1,118 @@
+package com.example.cryptorecommendationsservice.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnarPriceFormatTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<FixedPointPriceSeries> series = List.of(
+                randomSeries("BTC", new Random(1), 200_000, 46813.21),
+                randomSeries("DOGE", new Random(2), 1_000, 0.1702),
+                new FixedPointPriceSeries("EMPTY", new long[0], new long[0]),
+                new FixedPointPriceSeries("ONE", new long[]{1641009600000L}, new long[]{150_000_000}),
+                // Out of order and duplicate timestamps need negative and zero deltas
+                new FixedPointPriceSeries("ΞTH", new long[]{1000, 500, 500, Long.MAX_VALUE / 2, 0},
+                        new long[]{1, 0, 379_725_123_456L, Long.MAX_VALUE, 1_250_000_000}));
+
+        byte[] bytes = write(series);
+        List<FixedPointPriceSeries> read = ColumnarPriceReader.read(new ByteArrayInputStream(bytes));
+
+        assertEquals(series.size(), read.size());
+        for (int i = 0; i < series.size(); i++) {
+            FixedPointPriceSeries expected = series.get(i);
+            FixedPointPriceSeries actual = read.get(i);
+            assertEquals(expected.getSymbol(), actual.getSymbol());
+            assertArrayEquals(expected.getTimestamps(), actual.getTimestamps(), expected.getSymbol());
+            assertArrayEquals(expected.getPrices(), actual.getPrices(), expected.getSymbol());
+        }
+    }
+
+    @Test
+    public void testLargePricesAreEncodedExactlyOrRejected() {
+        // Beyond the 15 to 17 significant digits a double holds
+        assertEquals(1_234_567_890_123_456_789L,
+                ColumnarPriceWriter.toFixedPoint("BTC", new BigDecimal("12345678901.23456789")));
+        assertEquals(Long.MAX_VALUE, ColumnarPriceWriter.toFixedPoint("BTC", new BigDecimal("92233720368.54775807")));
+        assertEquals(new BigDecimal("92233720368.54775807"),
+                new FixedPointPriceSeries("BTC", new long[]{0}, new long[]{Long.MAX_VALUE}).getPrice(0));
+
+        // The price column allows 12 integer digits, more than an i64 holds at scale 8
+        assertThrows(ArithmeticException.class,
+                () -> ColumnarPriceWriter.toFixedPoint("BTC", new BigDecimal("92233720368.54775808")));
+        assertThrows(ArithmeticException.class,
+                () -> ColumnarPriceWriter.toFixedPoint("BTC", new BigDecimal("999999999999.99999999")));
+    }
+
+    @Test
+    public void testWritesEachBlockAsSoonAsItIsEncoded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarPriceWriter writer = new ColumnarPriceWriter(out);
+
+        writer.write(randomSeries("BTC", new Random(5), 10, 40000));
+        int afterFirstBlock = out.size();
+        writer.write(randomSeries("ETH", new Random(6), 10, 3000));
+        int afterSecondBlock = out.size();
+        writer.finish();
+
+        assertEquals(6 + 2 + 3 + 4 + 8 + 4 + 9 * 4 + 10 * 8, afterFirstBlock);
+        assertEquals(2 * afterFirstBlock - 6, afterSecondBlock);
+        assertEquals(List.of("BTC", "ETH"), ColumnarPriceReader.read(new ByteArrayInputStream(out.toByteArray()))
+                .stream().map(FixedPointPriceSeries::getSymbol).toList());
+    }
+
+    @Test
+    public void testRegularTimestampsAndFixedPointPricesAreCompact() throws IOException {
+        // Hourly ticks: four varint bytes per timestamp plus eight bytes per price
+        FixedPointPriceSeries series = randomSeries("BTC", new Random(3), 10_000, 40000);
+
+        byte[] bytes = write(List.of(series));
+
+        assertEquals(6 + 2 + 3 + 4 + 8 + 4 + 9_999 * 4 + 10_000 * 8 + 2, bytes.length);
+    }
+
+    @Test
+    public void testRejectsTruncatedAndForeignData() throws IOException {
+        byte[] bytes = write(List.of(randomSeries("BTC", new Random(4), 100, 40000)));
+
+        assertThrows(IOException.class,
+                () -> ColumnarPriceReader.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3))));
+        // Cut after a complete block, as when an export is aborted between two symbols
+        assertThrows(IOException.class,
+                () -> ColumnarPriceReader.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 2))));
+        assertThrows(IOException.class,
+                () -> ColumnarPriceReader.read(new ByteArrayInputStream("timestamp,symbol,price".getBytes())));
+    }
+
+    private static byte[] write(List<FixedPointPriceSeries> series) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarPriceWriter.write(series, out);
+        return out.toByteArray();
+    }
+
+    private static FixedPointPriceSeries randomSeries(String symbol, Random random, int rows, double startPrice) {
+        long[] timestamps = new long[rows];
+        long[] prices = new long[rows];
+        long timestamp = 1641009600000L;
+        double price = startPrice;
+        for (int i = 0; i < rows; i++) {
+            timestamps[i] = timestamp;
+            prices[i] = Math.round(price * 1e8);
+            timestamp += 3_600_000;
+            price *= Math.exp(random.nextGaussian() * 0.01);
+        }
+        return new FixedPointPriceSeries(symbol, timestamps, prices);
+    }
+}
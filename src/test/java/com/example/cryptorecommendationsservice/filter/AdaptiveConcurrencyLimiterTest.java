@@ -0,0 +1,110 @@
+package com.example.cryptorecommendationsservice.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testShedsWhenLimitAndQueueAreFull() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 2, 1, 10, Duration.ofMillis(100), 0, Duration.ZERO);
+
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.acquire());
+        assertEquals(3L, limiter.getMetrics().get("accepted"));
+        assertEquals(1L, limiter.getMetrics().get("rejected"));
+    }
+
+    @Test
+    public void testQueuedRequestGetsReleasedPermit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 1, 1, 1, Duration.ofMillis(100), 1, Duration.ofSeconds(10));
+        assertTrue(limiter.acquire());
+
+        Thread releaser = new Thread(() -> {
+            while ((int) limiter.getMetrics().get("queueDepth") == 0) {
+                Thread.onSpinWait();
+            }
+            limiter.release(FAST, false);
+        });
+        releaser.start();
+
+        assertTrue(limiter.acquire());
+        releaser.join();
+        assertEquals(0, limiter.getMetrics().get("queueDepth"));
+    }
+
+    @Test
+    public void testLimitGrowsWhenFastAndBacksOffWhenSlow() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 4, 2, 8, Duration.ofMillis(100), 0, Duration.ZERO);
+
+        // Keep the limiter saturated with fast requests
+        for (int round = 0; round < 100; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.acquire());
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertEquals(8, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.acquire());
+            limiter.release(SLOW, false);
+        }
+        assertEquals(2, limiter.getLimit());
+
+        assertTrue(limiter.acquire());
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testConcurrentSlowRequestsBackOffOnceAndLimitRecovers() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 20, 2, 20, Duration.ofMillis(100), 0, Duration.ZERO);
+
+        // A full batch of slow requests completing together cuts the limit once, not once per request
+        saturatedRound(limiter, SLOW);
+        assertEquals(18, limiter.getLimit());
+
+        // Under steady load the limit keeps backing off while latency stays above the target...
+        for (int round = 0; round < 30; round++) {
+            saturatedRound(limiter, SLOW);
+        }
+        assertEquals(2, limiter.getLimit());
+
+        // ...and grows back to the maximum once latency drops below it
+        for (int round = 0; round < 200 && limiter.getLimit() < 20; round++) {
+            saturatedRound(limiter, FAST);
+        }
+        assertEquals(20, limiter.getLimit());
+    }
+
+    private static void saturatedRound(AdaptiveConcurrencyLimiter limiter, long latencyNanos) throws InterruptedException {
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            assertTrue(limiter.acquire());
+        }
+        for (int i = 0; i < limit; i++) {
+            limiter.release(latencyNanos, false);
+        }
+    }
+}
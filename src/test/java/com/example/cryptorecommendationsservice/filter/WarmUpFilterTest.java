@@ -0,0 +1,171 @@
+package com.example.cryptorecommendationsservice.filter;
+
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.example.cryptorecommendationsservice.generator.SyntheticDataSet;
+import com.example.cryptorecommendationsservice.health.DataLoadHealthIndicator;
+import com.example.cryptorecommendationsservice.service.CsvImportService;
+import com.example.cryptorecommendationsservice.service.DataLoadState;
+import com.example.cryptorecommendationsservice.service.PriceSketchService;
+import com.example.cryptorecommendationsservice.service.StartupDataLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class WarmUpFilterTest {
+
+    @TempDir
+    Path directory;
+
+    private final DataLoadState dataLoadState = new DataLoadState();
+    private final BlockingImportService importService = new BlockingImportService();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new SupportedController())
+            .addFilter(new WarmUpFilter(dataLoadState, 5), "/api/crypto/*")
+            .build();
+
+    @Test
+    public void testRejectsReadsWithRetryAfterUntilTheLoadIsReady() throws Exception {
+        StartupDataLoader loader = loader(new BackfillingSketchService(false));
+        try {
+            loader.loadCsvFilesOnStartup();
+            assertTrue(importService.started.await(10, TimeUnit.SECONDS), "Startup load did not start");
+
+            mockMvc.perform(get("/api/crypto/supported"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+
+            importService.release.countDown();
+            assertTrue(dataLoadState.awaitReady(Duration.ofSeconds(10)), "Startup load did not complete");
+
+            mockMvc.perform(get("/api/crypto/supported"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER))
+                    .andExpect(content().string("BTC"));
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testServesLoadedDataAndReportsDownAfterAFailedLoad() throws Exception {
+        StartupDataLoader loader = loader(new BackfillingSketchService(true));
+        try {
+            importService.release.countDown();
+            loader.loadCsvFilesOnStartup();
+            assertFalse(dataLoadState.awaitReady(Duration.ofSeconds(10)));
+            assertEquals(DataLoadState.Status.FAILED, dataLoadState.getStatus());
+
+            mockMvc.perform(get("/api/crypto/supported"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+            assertEquals(Status.DOWN, new DataLoadHealthIndicator(dataLoadState).health().getStatus());
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testReportsDownWhenAFileFailedToLoad() throws Exception {
+        importService.failing = true;
+        StartupDataLoader loader = loader(new BackfillingSketchService(false));
+        try {
+            importService.release.countDown();
+            loader.loadCsvFilesOnStartup();
+            assertFalse(dataLoadState.awaitReady(Duration.ofSeconds(10)));
+            assertEquals(DataLoadState.Status.FAILED, dataLoadState.getStatus());
+            assertEquals(1, dataLoadState.getFailedFiles());
+
+            mockMvc.perform(get("/api/crypto/supported"))
+                    .andExpect(status().isOk());
+            assertEquals(Status.DOWN, new DataLoadHealthIndicator(dataLoadState).health().getStatus());
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    private StartupDataLoader loader(PriceSketchService priceSketchService) throws Exception {
+        Path file = Files.writeString(directory.resolve("BTC_values.csv"), "1641009600000,BTC,46813.21\n");
+        return new StartupDataLoader(importService, dataLoadState, priceSketchService,
+                new DefaultListableBeanFactory().getBeanProvider(SyntheticDataSet.class),
+                List.of(file.toUri().toString()), true, 1);
+    }
+
+    @RestController
+    static class SupportedController {
+
+        @GetMapping("/api/crypto/supported")
+        public String supported() {
+            return "BTC";
+        }
+    }
+
+    /**
+     * Blocks every import until released, instead of writing to the database, then optionally fails it.
+     */
+    private static class BlockingImportService extends CsvImportService {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean failing;
+
+        BlockingImportService() {
+            super(null, null, null, null, null, null, null, 1, 1, 1);
+        }
+
+        @Override
+        public CsvImportReport importCryptoData(InputStream inputStream) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            return new CsvImportReport();
+        }
+    }
+
+    /**
+     * Skips the sketch backfill, or fails it to fail the startup load.
+     */
+    private static class BackfillingSketchService extends PriceSketchService {
+
+        private final boolean failing;
+
+        BackfillingSketchService(boolean failing) {
+            super(null, null, null, null, null);
+            this.failing = failing;
+        }
+
+        @Override
+        public int backfillSketches() {
+            if (failing) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            return 0;
+        }
+    }
+}
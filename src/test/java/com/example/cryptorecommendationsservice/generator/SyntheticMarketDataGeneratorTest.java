@@ -0,0 +1,92 @@
+package com.example.cryptorecommendationsservice.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyntheticMarketDataGeneratorTest {
+
+    private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+
+    @Test
+    public void testSameSeedGeneratesSameBytes() throws IOException {
+        byte[] first = csv(new SyntheticMarketDataGenerator(7, 5, START, Duration.ofMinutes(1), Duration.ofDays(1)));
+        byte[] second = csv(new SyntheticMarketDataGenerator(7, 5, START, Duration.ofMinutes(1), Duration.ofDays(1)));
+        byte[] otherSeed = csv(new SyntheticMarketDataGenerator(8, 5, START, Duration.ofMinutes(1), Duration.ofDays(1)));
+
+        assertArrayEquals(first, second);
+        assertFalse(new String(first, StandardCharsets.US_ASCII).equals(new String(otherSeed, StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void testRowsFollowTheCsvFormatAndSchedule() throws IOException {
+        SyntheticMarketDataGenerator generator = new SyntheticMarketDataGenerator(42, 12, START, Duration.ofHours(1), Duration.ofDays(30));
+        String[] lines = new String(csv(generator), StandardCharsets.US_ASCII).split("\n");
+
+        assertEquals(12 * 720, generator.getRowCount());
+        assertEquals("timestamp,symbol,price", lines[0]);
+        assertEquals(generator.getRowCount() + 1, lines.length);
+        assertEquals(List.of("SYN00", "SYN01", "SYN02", "SYN03", "SYN04", "SYN05", "SYN06", "SYN07", "SYN08", "SYN09", "SYN10", "SYN11"),
+                generator.getSymbols());
+
+        for (int row = 0; row < generator.getRowCount(); row++) {
+            String[] fields = lines[row + 1].split(",");
+            assertEquals(START.toEpochMilli() + (row / 12) * 3_600_000L, Long.parseLong(fields[0]));
+            assertEquals(generator.symbol(row % 12), fields[1]);
+            BigDecimal price = new BigDecimal(fields[2]);
+            assertTrue(price.signum() > 0, lines[row + 1]);
+            assertTrue(price.scale() <= 8, lines[row + 1]);
+        }
+    }
+
+    @Test
+    public void testSymbolFilesMatchInterleavedStream() throws IOException {
+        SyntheticMarketDataGenerator generator = new SyntheticMarketDataGenerator(3, 4, START, Duration.ofMinutes(5), Duration.ofDays(2));
+        String[] interleaved = new String(csv(generator), StandardCharsets.US_ASCII).split("\n");
+
+        for (int index = 0; index < 4; index++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            generator.writeSymbolCsv(index, out);
+            List<String> expected = new ArrayList<>();
+            expected.add(interleaved[0]);
+            for (int row = 1 + index; row < interleaved.length; row += 4) {
+                expected.add(interleaved[row]);
+            }
+            assertEquals(expected, List.of(out.toString(StandardCharsets.US_ASCII).split("\n")));
+        }
+    }
+
+    @Test
+    public void testWritesOneFilePerSymbol(@TempDir Path directory) throws IOException {
+        SyntheticMarketDataGenerator generator = new SyntheticMarketDataGenerator(1, 3, START, Duration.ofHours(1), Duration.ofDays(1));
+
+        generator.writeSymbolFiles(directory);
+
+        for (String symbol : generator.getSymbols()) {
+            List<String> lines = Files.readAllLines(directory.resolve(symbol + "_values.csv"));
+            assertEquals(25, lines.size());
+            assertTrue(lines.get(1).startsWith(START.toEpochMilli() + "," + symbol + ","));
+        }
+    }
+
+    private static byte[] csv(SyntheticMarketDataGenerator generator) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.writeCsv(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.cryptorecommendationsservice.loadtest;
+
+import com.example.cryptorecommendationsservice.service.DataLoadState;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop HTTP load test against the full stack (filters, controllers, JPA and H2) on a random port.
+ * <p>
+ * Requests are issued at a fixed arrival rate regardless of how fast responses come back, and latency is measured
+ * from each request's intended start time, so a stalled server shows up in the percentiles instead of silently
+ * lowering the request rate (no coordinated omission). Only 2xx responses are recorded in the latency histograms, so
+ * fast rejections (429, 503) cannot make a failing run look quick; other responses are counted per status code.
+ * Nothing sent during warm-up is counted.
+ * <p>
+ * Excluded from the default build; run with {@code ./mvnw test -Pload-test}. Tunable with system properties:
+ * <ul>
+ *     <li>{@code loadtest.rate} - requests per second (default 50)</li>
+ *     <li>{@code loadtest.duration} - measured seconds (default 30)</li>
+ *     <li>{@code loadtest.warmup} - unmeasured warm-up seconds (default 5)</li>
+ *     <li>{@code loadtest.mix} - weighted operations (default
+ *     {@code stats=40,normalized-range=30,highest-normalized-range=25,import=5})</li>
+ *     <li>{@code loadtest.max-p99-ms} - fail if the overall p99 exceeds this (default 1000)</li>
+ *     <li>{@code loadtest.max-error-rate} - fail if a larger share of the measured requests gets a non-2xx response
+ *     (default 0.01)</li>
+ *     <li>{@code loadtest.rate-limit.enabled} - keep the per-IP rate limit active (default false)</li>
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "crypto.rate-limit.enabled=${loadtest.rate-limit.enabled:false}")
+public class HttpLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpLoadTest.class);
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final String[] SYMBOLS = {"BTC", "DOGE", "ETH", "LTC", "XRP"};
+    private static final String BOUNDARY = "load-test-boundary";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataLoadState dataLoadState;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, ConcurrentHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+    private final AtomicLong failedResponses = new AtomicLong();
+    private final AtomicLong transportErrors = new AtomicLong();
+
+    @Test
+    public void runLoad() throws Exception {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(5)), "Startup data load did not complete");
+
+        int rate = Integer.getInteger("loadtest.rate", 50);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 5);
+        long maxP99Millis = Long.getLong("loadtest.max-p99-ms", 1000);
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+                "stats=40,normalized-range=30,highest-normalized-range=25,import=5"));
+        byte[] importBody = multipartBody();
+
+        mix.keySet().forEach(op -> histograms.put(op, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3)));
+        List<String> weightedOps = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weightedOps.add(op);
+            }
+        });
+
+        // Warm-up is sent open-loop too but not recorded
+        run(rate, warmupSeconds, weightedOps, importBody, false);
+        long startNanos = System.nanoTime();
+        run(rate, durationSeconds, weightedOps, importBody, true);
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        histograms.values().forEach(total::add);
+        long requests = (long) rate * durationSeconds;
+        report(total, elapsedSeconds, requests);
+
+        assertEquals(0, transportErrors.get(), "Transport errors during load test");
+        assertTrue(failedResponses.get() <= maxErrorRate * requests, String.format(
+                "%d of %d responses were not 2xx: %s", failedResponses.get(), requests, new TreeMap<>(statusCounts)));
+        assertTrue(total.getValueAtPercentile(99) <= TimeUnit.MILLISECONDS.toMicros(maxP99Millis),
+                "p99 latency exceeded " + maxP99Millis + " ms");
+    }
+
+    private void run(int rate, int seconds, List<String> weightedOps, byte[] importBody, boolean record) {
+        Random random = new Random(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = (long) rate * seconds;
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        for (long i = 0; i < requests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String op = weightedOps.get(random.nextInt(weightedOps.size()));
+            HttpRequest request = request(op, random, importBody);
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latencyMicros = (System.nanoTime() - intendedStart) / 1_000;
+                        if (!record) {
+                            return;
+                        }
+                        if (error != null) {
+                            transportErrors.incrementAndGet();
+                            return;
+                        }
+                        statusCounts.computeIfAbsent(op + " " + response.statusCode(), k -> new AtomicLong())
+                                .incrementAndGet();
+                        if (response.statusCode() / 100 == 2) {
+                            histograms.get(op).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                        } else {
+                            failedResponses.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+    }
+
+    private HttpRequest request(String op, Random random, byte[] importBody) {
+        String base = "http://localhost:" + port;
+        return switch (op) {
+            case "stats" -> get(base + "/api/crypto/" + SYMBOLS[random.nextInt(SYMBOLS.length)] + "/stats");
+            case "normalized-range" -> get(base + "/api/crypto/normalized-range");
+            case "highest-normalized-range" ->
+                    get(base + "/api/crypto/highest-normalized-range?date=2022-01-" + String.format("%02d", 1 + random.nextInt(31)));
+            case "supported" -> get(base + "/api/crypto/supported");
+            case "import" -> HttpRequest.newBuilder(URI.create(base + "/api/import/crypto"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(importBody))
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown load test operation: " + op);
+        };
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    /**
+     * Re-imports the first rows of the bundled BTC file, so imports exercise the write path without changing data.
+     */
+    private static byte[] multipartBody() throws IOException {
+        String csv;
+        try (var in = new ClassPathResource("csv/BTC_values.csv").getInputStream()) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().limit(51)
+                    .collect(Collectors.joining("\n", "", "\n"));
+        }
+        String body = "--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"BTC_values.csv\"\r\n" +
+                "Content-Type: text/csv\r\n\r\n" +
+                csv + "\r\n" +
+                "--" + BOUNDARY + "--\r\n";
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private void report(Histogram total, double elapsedSeconds, long requests) {
+        StringBuilder report = new StringBuilder(String.format("%nLoad test results (%.1f s, latencies of 2xx responses)%n",
+                elapsedSeconds));
+        report.append(String.format("%-26s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        histograms.forEach((op, histogram) -> report.append(row(op, histogram, elapsedSeconds)));
+        report.append(row("total", total, elapsedSeconds));
+        report.append("Status codes: ").append(new TreeMap<>(statusCounts)).append(System.lineSeparator());
+        report.append(String.format("Non-2xx responses: %d of %d (%.2f%%)%n", failedResponses.get(), requests,
+                100.0 * failedResponses.get() / Math.max(1, requests)));
+        report.append("Transport errors: ").append(transportErrors.get());
+        logger.info("{}", report);
+    }
+
+    private static String row(String op, Histogram histogram, double elapsedSeconds) {
+        return String.format("%-26s %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", op, histogram.getTotalCount(),
+                histogram.getTotalCount() / elapsedSeconds,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+}
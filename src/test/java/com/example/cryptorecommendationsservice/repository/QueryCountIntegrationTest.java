@@ -0,0 +1,215 @@
+package com.example.cryptorecommendationsservice.repository;
+
+import com.example.cryptorecommendationsservice.service.DataLoadState;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of JDBC statements each endpoint and import issues, and checks that the read queries are
+ * served by indexes. A JDBC batch counts as one statement. Skipped in native tests because datasource-proxy wraps
+ * connections in JDK dynamic proxies.
+ */
+@DisabledInNativeImage
+@SpringBootTest(properties = "crypto.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+public class QueryCountIntegrationTest {
+
+    private static final List<QueryInfo> executedQueries = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class QueryRecordingConfig {
+
+        @Bean
+        static BeanPostProcessor queryRecordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .listener(new QueryExecutionListener() {
+                                    @Override
+                                    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                    }
+
+                                    @Override
+                                    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                        // One execution per call, even for a batch of many parameter sets
+                                        executedQueries.add(queryInfoList.get(0));
+                                    }
+                                })
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataLoadState dataLoadState;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void awaitStartupDataLoad() throws InterruptedException {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(2)), "Startup data load did not complete");
+        executedQueries.clear();
+    }
+
+    @Test
+    public void testStatsIssuesOneIndexedQuery() throws Exception {
+        mockMvc.perform(get("/api/crypto/BTC/stats")).andExpect(status().isOk());
+
+        assertEquals(1, executedQueries.size(), () -> "Unexpected statements: " + sql());
+        assertIndexed(executedQueries.get(0));
+    }
+
+    @Test
+    public void testHighestNormalizedRangeIssuesOneIndexedQuery() throws Exception {
+        mockMvc.perform(get("/api/crypto/highest-normalized-range?date=2022-01-24")).andExpect(status().isOk());
+
+        assertEquals(1, executedQueries.size(), () -> "Unexpected statements: " + sql());
+        assertIndexed(executedQueries.get(0));
+    }
+
+    @Test
+    public void testQuantilesReadDailySketchesThroughIndexes() throws Exception {
+        mockMvc.perform(get("/api/crypto/BTC/quantiles?q=0.5&from=2022-01-01&to=2022-01-31")).andExpect(status().isOk());
+
+        // Symbol lookup and one read of the daily sketches
+        assertEquals(2, executedQueries.size(), () -> "Unexpected statements: " + sql());
+        executedQueries.forEach(this::assertIndexed);
+    }
+
+    @Test
+    public void testImportIssuesOneBatchPerSymbol() throws Exception {
+        // Re-importing existing rows leaves the data unchanged
+        byte[] csv = (csvLines("csv/BTC_values.csv", 100) + csvLines("csv/ETH_values.csv", 100))
+                .getBytes(StandardCharsets.UTF_8);
+        mockMvc.perform(multipart("/api/import/crypto").file(new MockMultipartFile("file", "prices.csv", "text/csv", csv)))
+                .andExpect(status().isOk());
+
+        // Per symbol, independent of the number of rows: one lookup, one price update batch (no insert batch, as
+        // every row exists), one read of the touched days and one sketch upsert batch
+        assertEquals(8, executedQueries.size(), () -> "Unexpected statements: " + sql());
+    }
+
+    @Test
+    public void testImportReadsOnlyTheTouchedDays() throws Exception {
+        long first = 4102444800000L; // 2100-01-01, far away from the sample data
+        long last = first + 6 * 365 * 86_400_000L;
+        try {
+            byte[] csv = (first + ",BTC,1\n" + last + ",BTC,2\n").getBytes(StandardCharsets.UTF_8);
+            mockMvc.perform(multipart("/api/import/crypto").file(new MockMultipartFile("file", "prices.csv", "text/csv", csv)))
+                    .andExpect(status().isOk());
+
+            // One read of a single day per touched day instead of one read of the six years between them
+            List<QueryInfo> rangeReads = executedQueries.stream()
+                    .filter(query -> query.getQuery().toLowerCase().contains("timestamp<"))
+                    .collect(Collectors.toList());
+            assertEquals(2, rangeReads.size(), () -> "Unexpected statements: " + sql());
+            for (QueryInfo read : rangeReads) {
+                List<Object> parameters = parameters(read);
+                long to = (Long) parameters.get(parameters.size() - 1);
+                long from = (Long) parameters.get(parameters.size() - 2);
+                assertEquals(86_400_000L, to - from, () -> "Read more than one day: " + parameters);
+            }
+        } finally {
+            jdbcTemplate.update("DELETE FROM crypto_price WHERE timestamp >= ?", first);
+            jdbcTemplate.update("DELETE FROM crypto_price_sketch WHERE price_date >= DATE '2099-12-31'");
+        }
+    }
+
+    @Test
+    public void testPreRenderedResponsesQueryOncePerDataVersion() throws Exception {
+        byte[] csv = csvLines("csv/BTC_values.csv", 10).getBytes(StandardCharsets.UTF_8);
+        mockMvc.perform(multipart("/api/import/crypto").file(new MockMultipartFile("file", "prices.csv", "text/csv", csv)))
+                .andExpect(status().isOk());
+        executedQueries.clear();
+
+        mockMvc.perform(get("/api/crypto/normalized-range")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/crypto/supported")).andExpect(status().isOk());
+        assertEquals(2, executedQueries.size(), () -> "Unexpected statements: " + sql());
+
+        mockMvc.perform(get("/api/crypto/normalized-range")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/crypto/supported")).andExpect(status().isOk());
+        assertEquals(2, executedQueries.size(), () -> "Unexpected statements: " + sql());
+
+        // Recommendations are scored from the price snapshot, which is reloaded once for the import
+        mockMvc.perform(get("/api/crypto/recommendations")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/crypto/recommendations")).andExpect(status().isOk());
+        assertEquals(3, executedQueries.size(), () -> "Unexpected statements: " + sql());
+    }
+
+    /**
+     * Runs EXPLAIN on a recorded query, with its parameters inlined, and fails on any table scan.
+     */
+    private void assertIndexed(QueryInfo query) {
+        String sql = query.getQuery();
+        for (Object value : parameters(query)) {
+            String literal = value instanceof Number ? String.valueOf(value) : "'" + value + "'";
+            sql = sql.replaceFirst("\\?", literal);
+        }
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), () -> "Query scans a table without an index:\n" + plan);
+    }
+
+    /**
+     * Returns the parameters of the first execution of a recorded query, in parameter index order.
+     */
+    private static List<Object> parameters(QueryInfo query) {
+        return query.getParametersList().get(0).stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> operation.getArgs()[1])
+                .collect(Collectors.toList());
+    }
+
+    private static String csvLines(String resource, int limit) throws IOException {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .skip(1)
+                    .limit(limit)
+                    .collect(Collectors.joining("\n", "", "\n"));
+        }
+    }
+
+    private static String sql() {
+        return executedQueries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("\n"));
+    }
+}
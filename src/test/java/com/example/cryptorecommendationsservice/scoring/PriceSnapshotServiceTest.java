@@ -0,0 +1,104 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceSnapshotServiceTest {
+
+    private final StubSeriesLoader loader = new StubSeriesLoader();
+    private final PriceSnapshotService priceSnapshotService = new PriceSnapshotService(loader);
+
+    @Test
+    public void testReloadsOnlyTheImportedSymbols() {
+        loader.prices.put("BTC", 1.0);
+        loader.prices.put("ETH", 2.0);
+        PriceSnapshot first = priceSnapshotService.getSnapshot();
+
+        loader.prices.put("ETH", 3.0);
+        loader.prices.put("XRP", 4.0);
+        priceSnapshotService.onCryptoDataImported(new CryptoDataImportedEvent(Set.of("ETH", "XRP")));
+        PriceSnapshot second = priceSnapshotService.getSnapshot();
+
+        assertEquals(List.of("all", "[ETH, XRP]"), loader.loads);
+        assertEquals(List.of("BTC", "ETH", "XRP"), second.getSeries().stream().map(PriceSeries::getSymbol).toList());
+        assertSame(first.getSeries("BTC"), second.getSeries("BTC"));
+        assertEquals(3.0, second.getSeries("ETH").getPrices()[0]);
+        assertSame(second, priceSnapshotService.getSnapshot());
+    }
+
+    @Test
+    public void testServesThePreviousSnapshotWhileReloading() throws Exception {
+        loader.prices.put("BTC", 1.0);
+        PriceSnapshot first = priceSnapshotService.getSnapshot();
+
+        loader.prices.put("BTC", 2.0);
+        loader.blockNextLoad();
+        priceSnapshotService.onCryptoDataImported(new CryptoDataImportedEvent(Set.of("BTC")));
+        CompletableFuture<PriceSnapshot> reloading = CompletableFuture.supplyAsync(priceSnapshotService::getSnapshot);
+        assertTrue(loader.loadStarted.await(10, TimeUnit.SECONDS), "Reload did not start");
+
+        assertSame(first, priceSnapshotService.getSnapshot());
+
+        loader.releaseLoad.countDown();
+        PriceSnapshot reloaded = reloading.get(10, TimeUnit.SECONDS);
+        assertEquals(2.0, reloaded.getSeries("BTC").getPrices()[0]);
+        assertSame(reloaded, priceSnapshotService.getSnapshot());
+    }
+
+    /**
+     * Serves one price per symbol from a map instead of the database, and records what each load read.
+     */
+    private static class StubSeriesLoader extends PriceSeriesLoader {
+
+        private final Map<String, Double> prices = new ConcurrentHashMap<>();
+        private final List<String> loads = new ArrayList<>();
+        private final CountDownLatch loadStarted = new CountDownLatch(1);
+        private volatile CountDownLatch releaseLoad = new CountDownLatch(0);
+
+        StubSeriesLoader() {
+            super(null);
+        }
+
+        void blockNextLoad() {
+            releaseLoad = new CountDownLatch(1);
+        }
+
+        @Override
+        public List<PriceSeries> loadAll() {
+            loads.add("all");
+            return series(prices.keySet());
+        }
+
+        @Override
+        public List<PriceSeries> load(Collection<String> symbols) {
+            loadStarted.countDown();
+            try {
+                releaseLoad.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            loads.add(symbols.stream().sorted().toList().toString());
+            return series(symbols);
+        }
+
+        private List<PriceSeries> series(Collection<String> symbols) {
+            return symbols.stream().sorted()
+                    .map(symbol -> new PriceSeries(symbol, new long[]{0}, new double[]{prices.get(symbol)}))
+                    .toList();
+        }
+    }
+}
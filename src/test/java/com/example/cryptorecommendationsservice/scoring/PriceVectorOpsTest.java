@@ -0,0 +1,42 @@
+package com.example.cryptorecommendationsservice.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PriceVectorOpsTest {
+
+    private final PriceVectorOps scalar = new ScalarPriceVectorOps();
+    private final PriceVectorOps best = PriceVectorOps.best();
+
+    @Test
+    public void testBestMatchesScalarForAllTailLengths() {
+        Random random = new Random(42);
+        for (int length = 0; length < 70; length++) {
+            double[] prices = new double[length];
+            double price = 100;
+            for (int i = 0; i < length; i++) {
+                price *= 1 + (random.nextDouble() - 0.5) / 50;
+                prices[i] = price;
+            }
+            assertEquals(scalar.min(prices, length), best.min(prices, length), "min, length " + length);
+            assertEquals(scalar.max(prices, length), best.max(prices, length), "max, length " + length);
+            assertEquals(scalar.sum(prices, length), best.sum(prices, length), 1e-9, "sum, length " + length);
+            assertEquals(scalar.returnsVariance(prices, length), best.returnsVariance(prices, length), 1e-12,
+                    "variance, length " + length);
+        }
+    }
+
+    @Test
+    public void testTopKSelectsHighestScoresWithDeterministicTies() {
+        double[] scores = {0.5, 2.0, Double.NaN, 2.0, 1.0, -1.0};
+        String[] keys = {"A", "D", "E", "B", "C", "F"};
+
+        assertArrayEquals(new int[]{3, 1, 4}, TopK.select(scores, keys, 3));
+        assertArrayEquals(new int[]{3, 1, 4, 0, 5, 2}, TopK.select(scores, keys, 10));
+        assertArrayEquals(new int[0], TopK.select(scores, keys, 0));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.dto.CryptoStatsSimpleDTO;
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
+import com.example.cryptorecommendationsservice.repository.CryptoPriceRepository;
+import com.example.cryptorecommendationsservice.scoring.PriceSnapshotService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CryptoServiceTest {
+
+    @Test
+    public void testCallAfterImportDoesNotJoinQueryStartedBeforeIt() throws Exception {
+        CountDownLatch firstQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstQuery = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        CryptoPriceRepository repository = (CryptoPriceRepository) Proxy.newProxyInstance(
+                CryptoPriceRepository.class.getClassLoader(), new Class<?>[]{CryptoPriceRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findStatsBySymbol")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    // The first query reads the data from before the import and is slow
+                    BigDecimal price = BigDecimal.valueOf(1);
+                    if (queries.getAndIncrement() == 0) {
+                        firstQueryStarted.countDown();
+                        releaseFirstQuery.await();
+                    } else {
+                        price = BigDecimal.valueOf(2);
+                    }
+                    return Optional.of(new Object[]{new Object[]{"BTC", price, price, price, price}});
+                });
+        PriceSnapshotService priceSnapshotService = new PriceSnapshotService(null);
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(10));
+        CryptoService cryptoService = new CryptoService(null, repository, null, null, singleFlight, priceSnapshotService);
+
+        CompletableFuture<CryptoStatsSimpleDTO> beforeImport =
+                CompletableFuture.supplyAsync(() -> cryptoService.getCryptoStats("BTC"));
+        assertTrue(firstQueryStarted.await(10, TimeUnit.SECONDS));
+
+        priceSnapshotService.onCryptoDataImported(new CryptoDataImportedEvent(Set.of("BTC")));
+        CryptoStatsSimpleDTO afterImport = cryptoService.getCryptoStats("BTC");
+
+        releaseFirstQuery.countDown();
+        assertEquals(BigDecimal.valueOf(2), afterImport.getNewestPrice());
+        assertEquals(BigDecimal.valueOf(1), beforeImport.get(10, TimeUnit.SECONDS).getNewestPrice());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CryptoUpdatePublisherTest {
+
+    private final CryptoUpdatePublisher publisher = new CryptoUpdatePublisher(null, new ObjectMapper(),
+            2, 100, 2, Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofHours(1));
+
+    @AfterEach
+    public void shutdown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testSlowSubscriberIsDroppedWithoutHoldingBackOthers() throws Exception {
+        RecordingEmitter fast = new RecordingEmitter(null);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        publisher.register(fast);
+        publisher.register(slow);
+
+        // The slow subscriber gets stuck sending the first event; two more fit in its queue, the next one does not
+        for (int i = 0; i < 4; i++) {
+            publisher.broadcast(event(i));
+            int expected = i + 1;
+            awaitTrue(() -> fast.sent.size() == expected);
+        }
+        awaitTrue(() -> slow.sendAttempts.getCount() == 0);
+
+        assertEquals(1, publisher.getDroppedCount());
+        assertEquals(1, publisher.getSubscriberCount());
+
+        unblock.countDown();
+        awaitTrue(() -> slow.completed);
+        assertEquals(1, slow.sent.size());
+    }
+
+    @Test
+    public void testStalledSendIsDroppedAndDoesNotTakeTheLastDispatcherThread() throws Exception {
+        CryptoUpdatePublisher publisher = new CryptoUpdatePublisher(null, new ObjectMapper(),
+                32, 100, 1, Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofMillis(200));
+        try {
+            CountDownLatch unblock = new CountDownLatch(1);
+            RecordingEmitter stalled = new RecordingEmitter(unblock);
+            RecordingEmitter fast = new RecordingEmitter(null);
+            publisher.register(stalled);
+            publisher.register(fast);
+
+            // The only dispatcher thread may block on the stalled client before it serves the fast one
+            publisher.broadcast(event(0));
+            awaitTrue(() -> stalled.sendAttempts.getCount() == 0);
+            awaitTrue(() -> publisher.getDroppedCount() == 1);
+            awaitTrue(() -> fast.sent.size() == 1);
+
+            publisher.broadcast(event(1));
+            awaitTrue(() -> fast.sent.size() == 2);
+            assertEquals(1, publisher.getSubscriberCount());
+
+            unblock.countDown();
+            awaitTrue(() -> stalled.completed);
+            assertEquals(1, stalled.sent.size());
+        } finally {
+            publisher.shutdown();
+        }
+    }
+
+    private static Set<DataWithMediaType> event(int id) {
+        return SseEmitter.event().id(String.valueOf(id)).data("update " + id).build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sendAttempts = new CountDownLatch(1);
+        private final CountDownLatch unblock;
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            sendAttempts.countDown();
+            if (unblock != null) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(items);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
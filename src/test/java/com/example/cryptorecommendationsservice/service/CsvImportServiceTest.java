@@ -0,0 +1,130 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"crypto.rate-limit.enabled=false", "crypto.import.max-reported-rejections=2"})
+@RecordApplicationEvents
+public class CsvImportServiceTest {
+
+    private static final long TIMESTAMP = 4102444800000L; // 2100-01-01, far away from the sample data
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private DataLoadState dataLoadState;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    public void awaitStartupDataLoad() throws InterruptedException {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(2)), "Startup data load did not complete");
+    }
+
+    @AfterEach
+    public void deleteImportedRows() {
+        // Leave the shared database as the other tests expect it
+        jdbcTemplate.update("DELETE FROM crypto_price WHERE timestamp >= ?", TIMESTAMP);
+        jdbcTemplate.update("DELETE FROM crypto_price_sketch WHERE price_date >= DATE '2099-12-31'");
+    }
+
+    @Test
+    public void testLastWriteOfATimestampWinsWithinAFile() {
+        csvImportService.importCryptoData(csv(TIMESTAMP + ",ETH,1\n" + (TIMESTAMP + 1) + ",ETH,2\n" + TIMESTAMP + ",ETH,3\n"));
+
+        assertEquals(List.of(new BigDecimal("3.00000000"), new BigDecimal("2.00000000")), prices("ETH"));
+    }
+
+    @Test
+    public void testConcurrentImportsOfTheSameRowsLeaveOneImportsValues() throws Exception {
+        int imports = 8;
+        int rows = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(imports);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 1; i <= imports; i++) {
+                StringBuilder content = new StringBuilder();
+                for (int row = 0; row < rows; row++) {
+                    content.append(TIMESTAMP + row * 60_000L).append(",BTC,").append(i).append('\n')
+                            .append(TIMESTAMP + row * 60_000L).append(",LTC,").append(i).append('\n');
+                }
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    csvImportService.importCryptoData(csv(content.toString()));
+                }, executor));
+            }
+            start.countDown();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Each symbol's partition is written atomically under the symbol's lock, so one import's rows win entirely
+        for (String symbol : List.of("BTC", "LTC")) {
+            List<BigDecimal> prices = prices(symbol);
+            assertEquals(rows, prices.size(), symbol);
+            assertEquals(1, Set.copyOf(prices).size(), symbol + " mixes values of several imports: " + prices);
+            assertEquals(rows, jdbcTemplate.queryForObject(
+                    "SELECT SUM(s.price_count) FROM crypto_price_sketch s JOIN crypto c ON c.id = s.crypto_id "
+                            + "WHERE c.symbol = ? AND s.price_date >= DATE '2099-12-31'", Long.class, symbol), symbol);
+        }
+    }
+
+    @Test
+    public void testPartlyFailedImportAnnouncesCommittedSymbols() {
+        // The symbol does not fit into its column, so only its partition fails
+        String tooLong = "X".repeat(300);
+
+        assertThrows(RuntimeException.class, () -> csvImportService.importCryptoData(
+                csv(TIMESTAMP + ",DOGE,0.5\n" + TIMESTAMP + "," + tooLong + ",1\n")));
+
+        assertEquals(List.of(new BigDecimal("0.50000000")), prices("DOGE"));
+        List<Set<String>> announced = applicationEvents.stream(CryptoDataImportedEvent.class)
+                .map(CryptoDataImportedEvent::getSymbols)
+                .collect(Collectors.toList());
+        assertEquals(List.of(Set.of("DOGE")), announced);
+    }
+
+    private List<BigDecimal> prices(String symbol) {
+        return jdbcTemplate.queryForList("SELECT p.price FROM crypto_price p JOIN crypto c ON c.id = p.crypto_id "
+                + "WHERE c.symbol = ? AND p.timestamp >= ? ORDER BY p.timestamp", BigDecimal.class, symbol, TIMESTAMP);
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.dto.CsvImportReport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InboxWatcherTest {
+
+    @TempDir
+    Path inbox;
+
+    private final RecordingImportService importService = new RecordingImportService();
+
+    @Test
+    public void testImportsCompleteLinesIncrementallyAndResumesAfterRestart() throws IOException {
+        Path file = inbox.resolve("BTC_values.csv");
+        Files.writeString(file, "timestamp,symbol,price\n1,BTC,1.5\n2,BTC,2.5\n3,BT");
+
+        InboxWatcher watcher = watcher(Duration.ofHours(1));
+        watcher.process(file);
+        assertEquals(List.of("timestamp,symbol,price\n1,BTC,1.5\n2,BTC,2.5\n"), importService.imported);
+
+        Files.writeString(file, "C,3.5\n4,BTC,4.5", StandardOpenOption.APPEND);
+        watcher.process(file);
+        watcher.process(file);
+        assertEquals(List.of("timestamp,symbol,price\n1,BTC,1.5\n2,BTC,2.5\n", "3,BTC,3.5\n"), importService.imported);
+        assertTrue(Files.readString(inbox.resolve(".offsets.properties")).contains("BTC_values.csv=53"));
+        watcher.shutdown();
+
+        // After a restart the unterminated last line is imported once the file has settled
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        InboxWatcher restarted = watcher(Duration.ofHours(1));
+        restarted.process(file);
+        restarted.shutdown();
+
+        assertEquals(List.of("timestamp,symbol,price\n1,BTC,1.5\n2,BTC,2.5\n", "3,BTC,3.5\n", "4,BTC,4.5"), importService.imported);
+        assertFalse(Files.exists(file));
+        assertTrue(Files.exists(inbox.resolve("done/BTC_values.csv")));
+        assertFalse(Files.readString(inbox.resolve(".offsets.properties")).contains("BTC_values.csv"));
+
+        // Each imported range is reported; the restarted watcher only saw the last one
+        JsonNode report = new ObjectMapper().readTree(inbox.resolve("done/BTC_values.csv.report.json").toFile());
+        assertEquals("done", report.get("status").asText());
+        assertEquals(1, report.get("imports").size());
+        assertEquals(53, report.get("imports").get(0).get("fromByte").asLong());
+        assertEquals(62, report.get("imports").get(0).get("toByte").asLong());
+        assertEquals("1,BTC,bad", report.get("imports").get(0).get("report").get("rejectedRows").get(0).get("line").asText());
+    }
+
+    @Test
+    public void testTransientFailureKeepsFileAndOffsetAndRetriesAfterBackoff() throws Exception {
+        Path file = inbox.resolve("BTC_values.csv");
+        Files.writeString(file, "1,BTC,1\n");
+        InboxWatcher watcher = watcher(Duration.ofHours(1), 3, Duration.ofMillis(500));
+        watcher.process(file);
+
+        Files.writeString(file, "2,BTC,2\n", StandardOpenOption.APPEND);
+        importService.failure = new RuntimeException("Failed to process CSV file", new QueryTimeoutException("Timeout"));
+        watcher.process(file);
+        watcher.process(file); // Still backing off, so not attempted
+        assertEquals(1, importService.failedAttempts);
+        assertTrue(Files.exists(file));
+        assertTrue(Files.readString(inbox.resolve(".offsets.properties")).contains("BTC_values.csv=8"));
+
+        importService.failure = null;
+        awaitTrue(() -> {
+            watcher.process(file);
+            return importService.imported.size() == 2;
+        });
+        watcher.shutdown();
+
+        assertEquals(List.of("1,BTC,1\n", "2,BTC,2\n"), importService.imported);
+        assertTrue(Files.readString(inbox.resolve(".offsets.properties")).contains("BTC_values.csv=16"));
+    }
+
+    @Test
+    public void testBadContentAndExhaustedRetriesMoveFileToFailed() throws IOException {
+        Path broken = inbox.resolve("broken.csv");
+        Files.writeString(broken, "1,BTC,1\n");
+        Path unreachable = inbox.resolve("unreachable.csv");
+        Files.writeString(unreachable, "1,BTC,1\n");
+        InboxWatcher watcher = watcher(Duration.ofHours(1), 2, Duration.ZERO);
+
+        importService.failure = new RuntimeException("Failed to process CSV file",
+                new DataIntegrityViolationException("Value too long for column"));
+        watcher.process(broken);
+        assertTrue(Files.exists(inbox.resolve("failed/broken.csv")));
+        JsonNode report = new ObjectMapper().readTree(inbox.resolve("failed/broken.csv.report.json").toFile());
+        assertEquals("failed", report.get("status").asText());
+        assertTrue(report.get("error").asText().contains("Failed to process CSV file"));
+
+        importService.failure = new RuntimeException("Failed to process CSV file", new QueryTimeoutException("Timeout"));
+        watcher.process(unreachable);
+        assertTrue(Files.exists(unreachable));
+        watcher.process(unreachable);
+        watcher.shutdown();
+
+        assertFalse(Files.exists(unreachable));
+        assertTrue(Files.exists(inbox.resolve("failed/unreachable.csv")));
+    }
+
+    @Test
+    public void testWatchedFilesAreImportedAndMovedToDone() throws Exception {
+        InboxWatcher watcher = new InboxWatcher(importService, new ObjectMapper(), true, inbox, 2, Duration.ZERO, Duration.ofMillis(100), 1,
+                Duration.ZERO);
+        watcher.start();
+        try {
+            // Written under another name first, so the watcher never sees a settled but still empty file
+            Path staged = Files.writeString(inbox.resolve("ETH_values.csv.part"), "1,ETH,10\n");
+            Files.move(staged, inbox.resolve("ETH_values.csv"));
+            Files.writeString(inbox.resolve("ignored.txt"), "1,ETH,10\n");
+
+            awaitTrue(() -> Files.exists(inbox.resolve("done/ETH_values.csv")));
+            assertEquals(List.of("1,ETH,10\n"), importService.imported);
+            assertTrue(Files.exists(inbox.resolve("ignored.txt")));
+        } finally {
+            watcher.shutdown();
+        }
+    }
+
+    private InboxWatcher watcher(Duration settleTime) throws IOException {
+        return watcher(settleTime, 1, Duration.ZERO);
+    }
+
+    private InboxWatcher watcher(Duration settleTime, int maxAttempts, Duration retryBackoff) throws IOException {
+        InboxWatcher watcher = new InboxWatcher(importService, new ObjectMapper(), true, inbox, 1, settleTime, Duration.ofSeconds(1),
+                maxAttempts, retryBackoff);
+        watcher.initialize();
+        return watcher;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Records the content of every import instead of writing to the database, and reports one rejected row each.
+     */
+    private static class RecordingImportService extends CsvImportService {
+
+        private final List<String> imported = new CopyOnWriteArrayList<>();
+        private volatile RuntimeException failure;
+        private volatile int failedAttempts;
+
+        RecordingImportService() {
+            super(null, null, null, null, null, null, null, 1, 1, 1);
+        }
+
+        @Override
+        public CsvImportReport importCryptoData(InputStream inputStream) {
+            RuntimeException current = failure;
+            if (current != null) {
+                failedAttempts++;
+                throw current;
+            }
+            String content;
+            try {
+                content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            imported.add(content);
+            CsvImportReport report = new CsvImportReport();
+            report.getRejectedRows().add(new CsvImportReport.RejectedRow(1, "Invalid price", "1,BTC,bad"));
+            return report;
+        }
+    }
+}
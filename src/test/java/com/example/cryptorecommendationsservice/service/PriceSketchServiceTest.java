@@ -0,0 +1,62 @@
+package com.example.cryptorecommendationsservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"crypto.rate-limit.enabled=false", "crypto.import.max-reported-rejections=2"})
+public class PriceSketchServiceTest {
+
+    private static final long TIMESTAMP = 4102444800000L; // 2100-01-01, far away from the sample data
+
+    @Autowired
+    private PriceSketchService priceSketchService;
+
+    @Autowired
+    private DataLoadState dataLoadState;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void awaitStartupDataLoad() throws InterruptedException {
+        assertTrue(dataLoadState.awaitReady(Duration.ofMinutes(2)), "Startup data load did not complete");
+    }
+
+    @AfterEach
+    public void deleteInsertedRows() {
+        // Leave the shared database as the other tests expect it
+        jdbcTemplate.update("DELETE FROM crypto_price WHERE timestamp >= ?", TIMESTAMP);
+        jdbcTemplate.update("DELETE FROM crypto_price_sketch WHERE price_date >= DATE '2099-12-31'");
+    }
+
+    @Test
+    public void testBackfillBuildsSketchesOfPricesStoredWithoutThem() {
+        // Prices written behind the import's back, like rows stored before sketches existed
+        long ethId = jdbcTemplate.queryForObject("SELECT id FROM crypto WHERE symbol = 'ETH'", Long.class);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO crypto_price (crypto_id, timestamp, price) VALUES (?, ?, ?)",
+                    ethId, TIMESTAMP + i * 86_400_000L, i + 1);
+        }
+        jdbcTemplate.update("INSERT INTO crypto_price (crypto_id, timestamp, price) VALUES (?, ?, ?)",
+                ethId, TIMESTAMP + 3_600_000L, 4);
+
+        assertEquals(1, priceSketchService.backfillSketches());
+
+        List<Map<String, Object>> sketches = jdbcTemplate.queryForList("SELECT price_date, price_count "
+                + "FROM crypto_price_sketch WHERE crypto_id = ? AND price_date >= DATE '2099-12-31' "
+                + "ORDER BY price_date", ethId);
+        assertEquals(List.of(2L, 1L, 1L), sketches.stream().map(row -> ((Number) row.get("PRICE_COUNT")).longValue()).toList());
+        assertEquals(0, priceSketchService.backfillSketches(), "Complete sketches must not be rebuilt again");
+    }
+}
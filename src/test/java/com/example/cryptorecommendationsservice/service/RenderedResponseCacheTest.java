@@ -0,0 +1,101 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.event.CryptoDataImportedEvent;
+import com.example.cryptorecommendationsservice.scoring.PriceSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RenderedResponseCacheTest {
+
+    private final PriceSnapshotService priceSnapshotService = new PriceSnapshotService(null);
+    private final RenderedResponseCache cache = new RenderedResponseCache(new ObjectMapper(), priceSnapshotService,
+            new SingleFlight(Duration.ofSeconds(10)));
+
+    @Test
+    public void testBodyComputedDuringImportIsRenderedAgain() throws IOException {
+        // The import commits while the old data is being rendered
+        String first = body(cache.get("supported", () -> {
+            priceSnapshotService.onCryptoDataImported(new CryptoDataImportedEvent(Set.of("BTC")));
+            return List.of("BTC");
+        }));
+        String second = body(cache.get("supported", () -> List.of("BTC", "ETH")));
+        String third = body(cache.get("supported", () -> List.of("unused")));
+
+        assertEquals("[\"BTC\"]", first);
+        assertEquals("[\"BTC\",\"ETH\"]", second);
+        assertEquals(second, third);
+    }
+
+    @Test
+    public void testSlowRenderDoesNotBlockOtherKeys() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<RenderedResponseCache.RenderedResponse> slow = CompletableFuture.supplyAsync(
+                () -> cache.get("recommendations", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of("BTC");
+                }));
+        try {
+            assertTrue(started.await(10, TimeUnit.SECONDS), "Slow render did not start");
+
+            CompletableFuture<String> other = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return body(cache.get("supported", () -> List.of("ETH")));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertEquals("[\"ETH\"]", other.get(10, TimeUnit.SECONDS));
+            assertFalse(slow.isDone());
+        } finally {
+            release.countDown();
+        }
+        assertEquals("[\"BTC\"]", body(slow.get(10, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testGzipHonoursQualityValues() throws IOException {
+        assertTrue(RenderedResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(RenderedResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(RenderedResponseCache.acceptsGzip("*"));
+        assertFalse(RenderedResponseCache.acceptsGzip(null));
+        assertFalse(RenderedResponseCache.acceptsGzip("identity"));
+        assertFalse(RenderedResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(RenderedResponseCache.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(RenderedResponseCache.acceptsGzip("*;q=0"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.get("supported", () -> List.of("BTC")).writeTo(request, response);
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("[\"BTC\"]", response.getContentAsString());
+    }
+
+    private static String body(RenderedResponseCache.RenderedResponse rendered) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rendered.writeTo(new MockHttpServletRequest(), response);
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.cryptorecommendationsservice.service;
+
+import com.example.cryptorecommendationsservice.exception.ResourceNotFoundException;
+import com.example.cryptorecommendationsservice.exception.ServiceTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger computations = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(10));
+
+        List<Future<String>> results = callConcurrently(singleFlight, () -> "result");
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("result", result.get());
+        }
+        assertEquals(1, computations.get());
+        assertEquals(CALLERS - 1, singleFlight.getCoalescedCount());
+
+        // Nothing is cached once the computation has finished
+        singleFlight.execute("key", computations::incrementAndGet);
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void testErrorsPropagateToAllCallers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(10));
+        ResourceNotFoundException error = new ResourceNotFoundException("No price data found for crypto: XYZ");
+
+        List<Future<String>> results = callConcurrently(singleFlight, () -> {
+            throw error;
+        });
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, result::get);
+            assertSame(error, thrown.getCause());
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void testWaitingCallersTimeOut() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofMillis(50));
+
+        List<Future<String>> results = callConcurrently(singleFlight, () -> "result");
+
+        // Results arrive in submission order, and the first caller is the one computing
+        for (Future<String> result : results.subList(1, results.size())) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(ServiceTimeoutException.class, thrown.getCause());
+        }
+        release.countDown();
+        assertEquals("result", results.get(0).get());
+    }
+
+    /**
+     * Starts one caller that blocks inside the computation until {@link #release} opens, then the other callers.
+     */
+    private List<Future<String>> callConcurrently(SingleFlight singleFlight, Supplier<String> value)
+            throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            awaitRelease();
+            return value.get();
+        })));
+        started.await();
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                computations.incrementAndGet();
+                return value.get();
+            })));
+        }
+        // Let the other callers reach the in-flight computation before it completes
+        while (singleFlight.getCoalescedCount() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        return results;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
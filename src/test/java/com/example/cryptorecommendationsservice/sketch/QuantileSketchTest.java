@@ -0,0 +1,101 @@
+package com.example.cryptorecommendationsservice.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 1};
+
+    @Test
+    public void testQuantilesWithinRelativeAccuracy() {
+        double[] values = randomWalk(new Random(7), 100_000);
+        QuantileSketch sketch = new QuantileSketch();
+        Arrays.stream(values).forEach(sketch::add);
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * QuantileSketch.DEFAULT_RELATIVE_ACCURACY, "q=" + q);
+        }
+        assertEquals(sorted[0], sketch.getMin());
+        assertEquals(sorted[sorted.length - 1], sketch.getMax());
+    }
+
+    @Test
+    public void testMergeEqualsSketchOfAllValues() {
+        Random random = new Random(11);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch merged = new QuantileSketch();
+        for (int day = 0; day < 30; day++) {
+            QuantileSketch daily = new QuantileSketch();
+            for (double value : randomWalk(random, 500)) {
+                daily.add(value);
+                all.add(value);
+            }
+            merged.merge(daily);
+        }
+
+        assertEquals(all.getCount(), merged.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), merged.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        QuantileSketch sketch = new QuantileSketch();
+        Arrays.stream(randomWalk(new Random(3), 1_000)).forEach(sketch::add);
+        sketch.add(0);
+
+        QuantileSketch copy = QuantileSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.getCount(), copy.getCount());
+        assertEquals(sketch.getMin(), copy.getMin());
+        assertEquals(sketch.getMax(), copy.getMax());
+        for (double q : QUANTILES) {
+            assertEquals(sketch.quantile(q), copy.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    public void testBucketCountIsBounded() {
+        QuantileSketch sketch = new QuantileSketch();
+        // Values spanning hundreds of orders of magnitude need far more than MAX_BUCKETS buckets
+        for (int exponent = -300; exponent <= 300; exponent++) {
+            sketch.add(Math.pow(10, exponent));
+        }
+
+        assertTrue(sketch.toBytes().length < QuantileSketch.MAX_BUCKETS * 4);
+        assertEquals(601, sketch.getCount());
+        assertEquals(1e300, sketch.quantile(1));
+        // The top 2048 buckets cover about 17 orders of magnitude, which keep their accuracy
+        assertEquals(1e290, sketch.quantile(590.0 / 600), 1e290 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    @Test
+    public void testEmptySketchAndInvalidQuantiles() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.05)));
+    }
+
+    private static double[] randomWalk(Random random, int length) {
+        double[] values = new double[length];
+        double price = 100 + random.nextDouble() * 1000;
+        for (int i = 0; i < length; i++) {
+            price *= Math.exp(random.nextGaussian() * 0.01);
+            values[i] = price;
+        }
+        return values;
+    }
+}